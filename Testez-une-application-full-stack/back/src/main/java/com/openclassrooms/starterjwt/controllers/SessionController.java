@@ -1,15 +1,45 @@
 package com.openclassrooms.starterjwt.controllers;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.payload.request.BulkParticipateRequest;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.response.MessageResponse;
+import com.openclassrooms.starterjwt.payload.response.SessionPageResponse;
+import com.openclassrooms.starterjwt.payload.response.SessionSummaryPageResponse;
+import com.openclassrooms.starterjwt.services.DataVersionService;
+import com.openclassrooms.starterjwt.services.SessionCacheService;
+import com.openclassrooms.starterjwt.services.SessionCsvReader;
+import com.openclassrooms.starterjwt.services.SessionImportService;
 import com.openclassrooms.starterjwt.services.SessionService;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -17,46 +47,187 @@ import java.util.List;
 @RequestMapping("/api/session")
 @Log4j2
 public class SessionController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 100;
+
     private final SessionMapper sessionMapper;
     private final SessionService sessionService;
+    private final SessionImportService sessionImportService;
+    private final SessionCacheService sessionCacheService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
 
 
     public SessionController(SessionService sessionService,
-                             SessionMapper sessionMapper) {
+                             SessionMapper sessionMapper,
+                             SessionImportService sessionImportService,
+                             SessionCacheService sessionCacheService,
+                             DataVersionService dataVersionService,
+                             ObjectMapper objectMapper) {
         this.sessionMapper = sessionMapper;
         this.sessionService = sessionService;
+        this.sessionImportService = sessionImportService;
+        this.sessionCacheService = sessionCacheService;
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+    public ResponseEntity<?> findById(@PathVariable("id") String id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(this.dataVersionService.etag(DataVersionService.Resource.SESSION))) {
+            return notModified();
+        }
+
         try {
-            Session session = this.sessionService.getById(Long.valueOf(id));
+            SessionDto sessionDto = this.sessionCacheService.getById(Long.valueOf(id), key -> {
+                Session session = this.sessionService.getById(key);
+                return session != null ? this.sessionMapper.toDto(session) : null;
+            });
 
-            if (session == null) {
+            if (sessionDto == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(sessionDto);
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping()
-    public ResponseEntity<?> findAll() {
-        List<Session> sessions = this.sessionService.findAll();
+    public ResponseEntity<?> findAll(
+            WebRequest webRequest,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME, fallbackPatterns = {"yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd"}) Date from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME, fallbackPatterns = {"yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd"}) Date to) {
+        if (webRequest.checkNotModified(this.dataVersionService.etag(DataVersionService.Resource.SESSION))) {
+            return notModified();
+        }
+
+        if (cursor == null && size == null && from == null && to == null) {
+            List<SessionDto> sessions = this.sessionCacheService.getAll(
+                    () -> this.sessionMapper.toDto(this.sessionService.findAll()));
+
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(sessions);
+        }
+
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SessionCursor after = cursor != null ? SessionCursor.decode(cursor) : null;
+        Slice<Session> page = this.sessionService.findPage(after, from, to, pageSize);
+
+        String nextCursor = null;
+        if (page.hasNext()) {
+            List<Session> content = page.getContent();
+            nextCursor = SessionCursor.of(content.get(content.size() - 1)).encode();
+        }
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new SessionPageResponse(this.sessionMapper.toDto(page.getContent()), nextCursor));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> findAllSummaries(
+            WebRequest webRequest,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME, fallbackPatterns = {"yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd"}) Date from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME, fallbackPatterns = {"yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd"}) Date to) {
+        if (webRequest.checkNotModified(this.dataVersionService.etag(DataVersionService.Resource.SESSION))) {
+            return notModified();
+        }
+
+        if (cursor == null && size == null && from == null && to == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(this.sessionService.findAllSummaries());
+        }
+
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SessionCursor after = cursor != null ? SessionCursor.decode(cursor) : null;
+        Slice<SessionSummaryDto> page = this.sessionService.findSummaryPage(after, from, to, pageSize);
+
+        String nextCursor = null;
+        if (page.hasNext()) {
+            List<SessionSummaryDto> content = page.getContent();
+            nextCursor = SessionCursor.of(content.get(content.size() - 1)).encode();
+        }
 
-        return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new SessionSummaryPageResponse(page.getContent(), nextCursor));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                this.sessionService.exportAll(EXPORT_CHUNK_SIZE, sessions -> {
+                    try {
+                        for (Session session : sessions) {
+                            generator.writeObject(this.sessionMapper.toDto(session));
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> cacheStats() {
+        if (!CurrentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok().body(this.sessionCacheService.stats());
     }
 
     @PostMapping()
     public ResponseEntity<?> create(@Valid @RequestBody SessionDto sessionDto) {
-        log.info(sessionDto);
+        log.info("Creating session {}", sessionDto);
 
-        Session session = this.sessionService.create(this.sessionMapper.toEntity(sessionDto));
+        try {
+            Session session = this.sessionService.create(this.sessionMapper.toEntity(sessionDto));
 
-        log.info(session);
-        return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+            log.info("Created session {}", session);
+            return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createAll(HttpServletRequest request) throws IOException {
+        try (MappingIterator<SessionDto> rows = this.objectMapper.readerFor(SessionDto.class)
+                .readValues(request.getInputStream())) {
+            return ResponseEntity.ok().body(this.sessionImportService.importSessions(rows));
+        } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importCsv(HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            return ResponseEntity.ok().body(this.sessionImportService.importSessions(new SessionCsvReader(reader)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PutMapping("{id}")
@@ -67,6 +238,8 @@ public class SessionController {
             return ResponseEntity.ok().body(this.sessionMapper.toDto(session));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
@@ -97,6 +270,15 @@ public class SessionController {
         }
     }
 
+    @PostMapping("{id}/participate")
+    public ResponseEntity<?> participateAll(@PathVariable("id") String id, @Valid @RequestBody BulkParticipateRequest request) {
+        try {
+            return ResponseEntity.ok().body(this.sessionService.participateAll(Long.parseLong(id), request.getUserIds()));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("{id}/participate/{userId}")
     public ResponseEntity<?> noLongerParticipate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
         try {
@@ -107,4 +289,8 @@ public class SessionController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    private ResponseEntity<?> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+    }
 }
@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.monitoring.SlowEventRecorder;
+import com.openclassrooms.starterjwt.security.services.BoundedPasswordEncoder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final SlowEventRecorder slowEventRecorder;
+
+
+    public StatsController(BoundedPasswordEncoder passwordEncoder, SlowEventRecorder slowEventRecorder) {
+        this.passwordEncoder = passwordEncoder;
+        this.slowEventRecorder = slowEventRecorder;
+    }
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<?> passwordHashing() {
+        if (!CurrentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok().body(this.passwordEncoder.stats());
+    }
+
+    @GetMapping("/slow-events")
+    public ResponseEntity<?> slowEvents() {
+        if (!CurrentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok().body(this.slowEventRecorder.recent());
+    }
+}
@@ -3,9 +3,11 @@ package com.openclassrooms.starterjwt.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.Date;
@@ -29,8 +31,13 @@ public class SessionDto {
 
     @NotNull
     @Size(max = 2500)
+    @ToString.Exclude
     private String description;
 
+    @Positive
+    private Integer capacity;
+
+    @ToString.Exclude
     private List<Long> users;
 
     private LocalDateTime createdAt;
@@ -0,0 +1,67 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.List;
+
+/**
+ * Per-thread totals for the HTTP request being served: statements, time spent in JDBC
+ * and rows read or written. Only plain fields are updated, so a fast request pays for
+ * one small allocation and a few additions.
+ */
+final class RequestTrace {
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    final long startNanos = System.nanoTime();
+    final String endpoint;
+    int statements;
+    long sqlNanos;
+    long rowsRead;
+    long rowsAffected;
+    long statementStartNanos;
+    long slowestNanos = -1;
+    List<QueryInfo> slowestQueries;
+    SlowEvent currentSlowStatement;
+
+    private RequestTrace(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    static RequestTrace begin(String endpoint) {
+        RequestTrace trace = new RequestTrace(endpoint);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    void statementStarted() {
+        statementStartNanos = System.nanoTime();
+        currentSlowStatement = null;
+    }
+
+    long statementFinished(List<QueryInfo> queries, long rows) {
+        long elapsed = System.nanoTime() - statementStartNanos;
+        statements++;
+        sqlNanos += elapsed;
+        rowsAffected += rows;
+        if (elapsed > slowestNanos) {
+            slowestNanos = elapsed;
+            slowestQueries = queries;
+        }
+        return elapsed;
+    }
+
+    void rowRead() {
+        rowsRead++;
+        if (currentSlowStatement != null) {
+            currentSlowStatement.addRowRead();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A request or a SQL statement that went over its threshold. For a slow query, rows
+ * are counted as the result set is read, after the event has been recorded.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SlowEvent {
+    public enum Type { REQUEST, STATEMENT }
+
+    private final Type type;
+    private final Instant timestamp = Instant.now();
+    private final String endpoint;
+    private final Integer status;
+    private final double elapsedMs;
+    private final Integer statements;
+    private final Double sqlMs;
+    private final String sql;
+    private final List<List<String>> parameters;
+    private final Long rowsAffected;
+    private volatile long rowsRead;
+
+    private SlowEvent(Type type, String endpoint, Integer status, double elapsedMs, Integer statements,
+                      Double sqlMs, String sql, List<List<String>> parameters, long rowsRead, Long rowsAffected) {
+        this.type = type;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.elapsedMs = elapsedMs;
+        this.statements = statements;
+        this.sqlMs = sqlMs;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.rowsRead = rowsRead;
+        this.rowsAffected = rowsAffected;
+    }
+
+    static SlowEvent request(String endpoint, int status, long elapsedNanos, RequestTrace trace, String slowestSql) {
+        return new SlowEvent(Type.REQUEST, endpoint, status, toMillis(elapsedNanos), trace.statements,
+                toMillis(trace.sqlNanos), slowestSql, null, trace.rowsRead, trace.rowsAffected);
+    }
+
+    static SlowEvent statement(String endpoint, long elapsedNanos, String sql, List<List<String>> parameters,
+                               Long rowsAffected) {
+        return new SlowEvent(Type.STATEMENT, endpoint, null, toMillis(elapsedNanos), null, null, sql, parameters,
+                0, rowsAffected);
+    }
+
+    void addRowRead() {
+        // only the thread that ran the statement reads its result set
+        rowsRead++;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
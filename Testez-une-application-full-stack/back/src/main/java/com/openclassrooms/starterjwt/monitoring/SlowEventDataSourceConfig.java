@@ -0,0 +1,35 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource so statements are timed for the slow event ring.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SlowEventDataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor slowEventDataSourcePostProcessor(ObjectProvider<SlowEventRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+
+                StatementTimingListener listener = new StatementTimingListener(recorder::getIfAvailable);
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(listener)
+                        .proxyResultSet(listener)
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most recent slow requests and statements in a fixed-size ring. Every slow
+ * event is counted; only a sampled fraction of them is captured into the ring.
+ */
+@Service
+public class SlowEventRecorder implements MeterBinder {
+    private final long requestThresholdNanos;
+    private final long statementThresholdNanos;
+    private final double sampleRate;
+    private final boolean captureParameterValues;
+    private final AtomicReferenceArray<SlowEvent> ring;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder slowRequests = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+
+    public SlowEventRecorder(@Value("${oc.app.slowEvents.requestThresholdMs:500}") long requestThresholdMs,
+                             @Value("${oc.app.slowEvents.statementThresholdMs:100}") long statementThresholdMs,
+                             @Value("${oc.app.slowEvents.sampleRate:1.0}") double sampleRate,
+                             @Value("${oc.app.slowEvents.capacity:256}") int capacity,
+                             @Value("${oc.app.slowEvents.captureParameterValues:false}") boolean captureParameterValues) {
+        this.requestThresholdNanos = TimeUnit.MILLISECONDS.toNanos(requestThresholdMs);
+        this.statementThresholdNanos = TimeUnit.MILLISECONDS.toNanos(statementThresholdMs);
+        this.sampleRate = sampleRate;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.captureParameterValues = captureParameterValues;
+    }
+
+    boolean isSlowRequest(long elapsedNanos) {
+        return elapsedNanos >= requestThresholdNanos;
+    }
+
+    boolean isSlowStatement(long elapsedNanos) {
+        return elapsedNanos >= statementThresholdNanos;
+    }
+
+    /**
+     * Whether string parameters are captured verbatim rather than as their type and length.
+     */
+    boolean capturesParameterValues() {
+        return captureParameterValues;
+    }
+
+    /**
+     * Counts the event and captures it if sampled. Returns whether it was captured.
+     */
+    boolean record(SlowEvent event) {
+        (event.getType() == SlowEvent.Type.REQUEST ? slowRequests : slowStatements).increment();
+
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+
+        long slot = sequence.getAndIncrement();
+        ring.set((int) (slot % ring.length()), event);
+        return true;
+    }
+
+    /**
+     * Captured events, newest first.
+     */
+    public List<SlowEvent> recent() {
+        long end = sequence.get();
+        long start = Math.max(0, end - ring.length());
+        List<SlowEvent> events = new ArrayList<>((int) (end - start));
+
+        for (long slot = end - 1; slot >= start; slot--) {
+            SlowEvent event = ring.get((int) (slot % ring.length()));
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        return events;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("slow.events", slowRequests, LongAdder::sum)
+                .tag("type", "request")
+                .description("Requests slower than the configured threshold")
+                .register(registry);
+        FunctionCounter.builder("slow.events", slowStatements, LongAdder::sum)
+                .tag("type", "statement")
+                .description("SQL statements slower than the configured threshold")
+                .register(registry);
+    }
+}
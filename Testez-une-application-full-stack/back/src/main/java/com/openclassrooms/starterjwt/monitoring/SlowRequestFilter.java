@@ -0,0 +1,48 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Measures wall time per request, security included, and records the request when it
+ * goes over the threshold, along with its JDBC totals and slowest statement.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SlowRequestFilter extends OncePerRequestFilter {
+    private final SlowEventRecorder recorder;
+
+    public SlowRequestFilter(SlowEventRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin(request.getMethod() + " " + request.getRequestURI());
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.end();
+
+            long elapsedNanos = System.nanoTime() - trace.startNanos;
+            if (recorder.isSlowRequest(elapsedNanos)) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String endpoint = pattern != null ? request.getMethod() + " " + pattern : trace.endpoint;
+
+                recorder.record(SlowEvent.request(endpoint, response.getStatus(), elapsedNanos, trace,
+                        StatementTimingListener.sql(trace.slowestQueries)));
+            }
+        }
+    }
+}
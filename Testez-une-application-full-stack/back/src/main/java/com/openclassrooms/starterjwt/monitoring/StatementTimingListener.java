@@ -0,0 +1,150 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement and counts the rows read through its result sets. Totals go
+ * to the current {@link RequestTrace}; statements over the threshold are recorded with
+ * their SQL and bound parameters. Numbers and booleans are kept as is; other values are
+ * reduced to their type (and length, for strings) unless full capture is enabled, and
+ * always for statements that touch a password column.
+ */
+class StatementTimingListener implements QueryExecutionListener, ResultSetProxyLogicFactory {
+    private static final int MAX_PARAMETER_SETS = 10;
+    private static final int MAX_PARAMETER_LENGTH = 64;
+    private static final Pattern PASSWORD_COLUMN = Pattern.compile("\\bpassword\\b", Pattern.CASE_INSENSITIVE);
+
+    private final Supplier<SlowEventRecorder> recorderSupplier;
+    private volatile SlowEventRecorder recorder;
+
+    StatementTimingListener(Supplier<SlowEventRecorder> recorderSupplier) {
+        this.recorderSupplier = recorderSupplier;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long rows = rowsAffected(execInfo.getResult());
+        RequestTrace trace = RequestTrace.current();
+        long elapsedNanos = trace != null
+                ? trace.statementFinished(queryInfoList, rows)
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+
+        SlowEventRecorder slowEvents = recorder();
+        if (slowEvents == null || !slowEvents.isSlowStatement(elapsedNanos)) {
+            return;
+        }
+
+        SlowEvent event = SlowEvent.statement(trace != null ? trace.endpoint : null, elapsedNanos,
+                sql(queryInfoList), parameters(queryInfoList, slowEvents.capturesParameterValues()), execInfo.getResult() instanceof ResultSet ? null : rows);
+        if (slowEvents.record(event) && trace != null) {
+            trace.currentSlowStatement = event;
+        }
+    }
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        ResultSetProxyLogic delegate = new SimpleResultSetProxyLogic(resultSet, connectionInfo, proxyConfig);
+
+        return (method, args) -> {
+            Object result = delegate.invoke(method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                RequestTrace trace = RequestTrace.current();
+                if (trace != null) {
+                    trace.rowRead();
+                }
+            }
+            return result;
+        };
+    }
+
+    static String sql(List<QueryInfo> queries) {
+        if (queries == null || queries.isEmpty()) {
+            return null;
+        }
+        return queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n"));
+    }
+
+    static List<List<String>> parameters(List<QueryInfo> queries, boolean captureValues) {
+        List<List<String>> sets = new ArrayList<>();
+
+        for (QueryInfo query : queries) {
+            boolean redact = !captureValues || PASSWORD_COLUMN.matcher(query.getQuery()).find();
+            for (List<ParameterSetOperation> operations : query.getParametersList()) {
+                if (sets.size() == MAX_PARAMETER_SETS) {
+                    return sets;
+                }
+                List<String> values = new ArrayList<>(operations.size());
+                for (ParameterSetOperation operation : operations) {
+                    values.add(format(operation, redact));
+                }
+                sets.add(values);
+            }
+        }
+
+        return sets.isEmpty() ? Collections.emptyList() : sets;
+    }
+
+    private static String format(ParameterSetOperation operation, boolean redact) {
+        Object[] args = operation.getArgs();
+        if ("setNull".equals(operation.getMethod().getName()) || args.length < 2 || args[1] == null) {
+            return "NULL";
+        }
+
+        Object arg = args[1];
+        if (redact && !(arg instanceof Number) && !(arg instanceof Boolean)) {
+            String type = arg.getClass().getSimpleName();
+            return arg instanceof CharSequence ? type + "(" + ((CharSequence) arg).length() + ")" : type;
+        }
+
+        String value = String.valueOf(arg);
+        return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+    }
+
+    private static long rowsAffected(Object result) {
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        if (result instanceof int[]) {
+            long total = 0;
+            for (int count : (int[]) result) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return 0;
+    }
+
+    private SlowEventRecorder recorder() {
+        SlowEventRecorder current = recorder;
+        if (current == null) {
+            current = recorderSupplier.get();
+            recorder = current;
+        }
+        return current;
+    }
+}
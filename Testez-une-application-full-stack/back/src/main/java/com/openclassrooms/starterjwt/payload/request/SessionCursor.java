@@ -0,0 +1,49 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.models.Session;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset position in the (date, id) ordering of sessions.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionCursor {
+  private final Date date;
+  private final Long id;
+
+  public static SessionCursor of(Session session) {
+    return new SessionCursor(session.getDate(), session.getId());
+  }
+
+  public static SessionCursor of(SessionSummaryDto summary) {
+    return new SessionCursor(summary.getDate(), summary.getId());
+  }
+
+  public static SessionCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(':');
+      if (separator < 0) {
+        throw new BadRequestException();
+      }
+
+      return new SessionCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+          Long.valueOf(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException();
+    }
+  }
+
+  public String encode() {
+    String raw = date.getTime() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
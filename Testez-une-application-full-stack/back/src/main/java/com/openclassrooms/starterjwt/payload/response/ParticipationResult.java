@@ -0,0 +1,19 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ParticipationResult {
+  private Long userId;
+
+  private Status status;
+
+  public enum Status {
+    ENROLLED,
+    ALREADY_ENROLLED,
+    USER_NOT_FOUND,
+    SESSION_FULL
+  }
+}
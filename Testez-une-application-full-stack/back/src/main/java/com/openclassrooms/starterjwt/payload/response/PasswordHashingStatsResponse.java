@@ -0,0 +1,26 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PasswordHashingStatsResponse {
+  private int poolSize;
+
+  private int activeCount;
+
+  private int queueDepth;
+
+  private int queueCapacity;
+
+  private long completedCount;
+
+  private long rejectedCount;
+
+  private double averageQueueWaitMs;
+
+  private double maxQueueWaitMs;
+
+  private double averageHashMs;
+}
@@ -1,9 +1,109 @@
 package com.openclassrooms.starterjwt.repository;
 
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.models.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SessionRepository  extends JpaRepository<Session, Long> {
+public interface SessionRepository  extends JpaRepository<Session, Long>, SessionRepositoryCustom {
+    String STREAM_FETCH_SIZE = "100";
+
+    String SUMMARY_SELECT = "select new com.openclassrooms.starterjwt.dto.SessionSummaryDto("
+            + "s.id, s.name, s.date, t.id, size(s.users)) from Session s left join s.teacher t";
+
+    @Override
+    @EntityGraph("Session.users")
+    Optional<Session> findById(Long id);
+
+    @Override
+    @Query("select distinct s from Session s left join fetch s.users")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Session> findAll();
+
+    @Query("select s from Session s where s.date >= :from and s.date < :to order by s.date, s.id")
+    Slice<Session> findPage(@Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    @Query("select s from Session s where s.date >= :from and s.date < :to"
+            + " and (s.date > :afterDate or (s.date = :afterDate and s.id > :afterId))"
+            + " order by s.date, s.id")
+    Slice<Session> findPageAfter(@Param("from") Date from,
+                                 @Param("to") Date to,
+                                 @Param("afterDate") Date afterDate,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " order by s.date, s.id")
+    List<SessionSummaryDto> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " where s.date >= :from and s.date < :to order by s.date, s.id")
+    Slice<SessionSummaryDto> findSummaryPage(@Param("from") Date from, @Param("to") Date to, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where s.date >= :from and s.date < :to"
+            + " and (s.date > :afterDate or (s.date = :afterDate and s.id > :afterId))"
+            + " order by s.date, s.id")
+    Slice<SessionSummaryDto> findSummaryPageAfter(@Param("from") Date from,
+                                                  @Param("to") Date to,
+                                                  @Param("afterDate") Date afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    @Query("select s from Session s order by s.id")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Session> streamAll();
+
+    @Query(value = "select count(*) from PARTICIPATE where session_id = :sessionId and user_id = :userId",
+            nativeQuery = true)
+    long countParticipation(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into PARTICIPATE (session_id, user_id) values (:sessionId, :userId)", nativeQuery = true)
+    int addParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from PARTICIPATE where session_id = :sessionId and user_id = :userId", nativeQuery = true)
+    int removeParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    /**
+     * Reads the seat counter and locks the session row until the end of the transaction.
+     */
+    @Query(value = "select capacity, seats_taken as seatsTaken from SESSIONS where id = :id for update", nativeQuery = true)
+    Optional<SessionSeats> lockSeats(@Param("id") Long id);
+
+    @Query(value = "select user_id from PARTICIPATE where session_id = :sessionId and user_id in (:userIds)", nativeQuery = true)
+    List<Long> findParticipantIds(@Param("sessionId") Long sessionId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Takes the given number of seats if they are all free. Returns 0 when the session is full or does not exist.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update SESSIONS set seats_taken = seats_taken + :seats"
+            + " where id = :id and (capacity is null or seats_taken + :seats <= capacity)", nativeQuery = true)
+    int claimSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update SESSIONS set seats_taken = seats_taken - 1 where id = :id", nativeQuery = true)
+    int releaseSeat(@Param("id") Long id);
 }
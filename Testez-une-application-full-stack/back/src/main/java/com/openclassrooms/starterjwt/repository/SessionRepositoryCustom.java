@@ -0,0 +1,7 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.util.Collection;
+
+public interface SessionRepositoryCustom {
+    void addParticipants(Long sessionId, Collection<Long> userIds);
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+public class SessionRepositoryCustomImpl implements SessionRepositoryCustom {
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SessionRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addParticipants(Long sessionId, Collection<Long> userIds) {
+        this.jdbcTemplate.batchUpdate(
+                "insert into PARTICIPATE (session_id, user_id) values (?, ?)",
+                userIds,
+                INSERT_BATCH_SIZE,
+                (ps, userId) -> {
+                    ps.setLong(1, sessionId);
+                    ps.setLong(2, userId);
+                });
+    }
+}
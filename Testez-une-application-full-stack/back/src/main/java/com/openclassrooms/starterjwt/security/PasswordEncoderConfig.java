@@ -0,0 +1,34 @@
+package com.openclassrooms.starterjwt.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.openclassrooms.starterjwt.security.services.BoundedPasswordEncoder;
+
+/**
+ * Kept apart from WebSecurityConfig so the encoder, which also publishes metrics,
+ * can be created before the security configuration it is injected into.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+  @Value("${oc.app.bcryptStrength:10}")
+  private int bcryptStrength;
+
+  // 0 sizes the hashing pool to the available cores
+  @Value("${oc.app.bcryptThreads:0}")
+  private int bcryptThreads;
+
+  @Value("${oc.app.bcryptQueueCapacity:64}")
+  private int bcryptQueueCapacity;
+
+  @Value("${oc.app.bcryptTimeoutMs:5000}")
+  private long bcryptTimeoutMs;
+
+  @Bean
+  public BoundedPasswordEncoder passwordEncoder() {
+    int threads = bcryptThreads > 0 ? bcryptThreads : Runtime.getRuntime().availableProcessors();
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads, bcryptQueueCapacity, bcryptTimeoutMs);
+  }
+}
@@ -1,6 +1,14 @@
 package com.openclassrooms.starterjwt.security.jwt;
 
+import java.security.Key;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,52 +16,185 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.impl.TextCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Component
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
   private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+  private static final String ID_CLAIM = "id";
+  private static final String FIRST_NAME_CLAIM = "firstName";
+  private static final String LAST_NAME_CLAIM = "lastName";
+  private static final String ADMIN_CLAIM = "admin";
+
+  // Upper bound on how long any verified token stays cached, whatever its exp claim
+  private static final long MAX_CACHED_NANOS = TimeUnit.MINUTES.toNanos(10);
+
   @Value("${oc.app.jwtSecret}")
   private String jwtSecret;
 
   @Value("${oc.app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  @Value("${oc.app.jwtCacheMaxSize:10000}")
+  private long jwtCacheMaxSize = 10000;
+
+  private Key signingKey;
+
+  private JwtParser parser;
+
+  private Cache<String, Claims> verifiedTokens;
+
+  // Failed verifications by reason; keys are fixed, only the adders change
+  private final Map<String, LongAdder> verificationFailures = new LinkedHashMap<>();
+
+  public JwtUtils() {
+    for (String reason : new String[] {"signature", "malformed", "expired", "unsupported", "empty"}) {
+      verificationFailures.put(reason, new LongAdder());
+    }
+  }
+
+  /**
+   * Builds the signing key, parser and verified token cache once the properties are injected.
+   */
+  @PostConstruct
+  public void init() {
+    signingKey = new SecretKeySpec(TextCodec.BASE64.decode(jwtSecret), SignatureAlgorithm.HS512.getJcaName());
+    parser = Jwts.parser().setSigningKey(signingKey);
+    verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(jwtCacheMaxSize)
+        .expireAfter(new Expiry<String, Claims>() {
+          @Override
+          public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+              return MAX_CACHED_NANOS;
+            }
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMs), MAX_CACHED_NANOS));
+          }
+
+          @Override
+          public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+  }
+
   public String generateJwtToken(Authentication authentication) {
 
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
     return Jwts.builder()
         .setSubject((userPrincipal.getUsername()))
+        .claim(ID_CLAIM, userPrincipal.getId())
+        .claim(FIRST_NAME_CLAIM, userPrincipal.getFirstName())
+        .claim(LAST_NAME_CLAIM, userPrincipal.getLastName())
+        .claim(ADMIN_CLAIM, userPrincipal.getAdmin())
         .setIssuedAt(new Date())
         .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .signWith(SignatureAlgorithm.HS512, signingKey)
         .compact();
   }
 
   public String getUserNameFromJwtToken(String token) {
-    return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+    return verify(token).getSubject();
   }
 
-  public boolean validateJwtToken(String authToken) {
+  /**
+   * Returns the verified claims of the token, or null when it is invalid or expired.
+   */
+  public Claims getClaimsFromJwtToken(String authToken) {
     try {
-      Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-      return true;
+      return verify(authToken);
     } catch (SignatureException e) {
+      verificationFailures.get("signature").increment();
       logger.error("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
+      verificationFailures.get("malformed").increment();
       logger.error("Invalid JWT token: {}", e.getMessage());
     } catch (ExpiredJwtException e) {
+      verificationFailures.get("expired").increment();
       logger.error("JWT token is expired: {}", e.getMessage());
     } catch (UnsupportedJwtException e) {
+      verificationFailures.get("unsupported").increment();
       logger.error("JWT token is unsupported: {}", e.getMessage());
     } catch (IllegalArgumentException e) {
+      verificationFailures.get("empty").increment();
       logger.error("JWT claims string is empty: {}", e.getMessage());
     }
 
-    return false;
+    return null;
+  }
+
+  /**
+   * Rebuilds the principal from verified claims, or returns null for tokens issued
+   * before the user claims were embedded.
+   */
+  public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+    Number id = claims.get(ID_CLAIM, Number.class);
+    if (id == null) {
+      return null;
+    }
+
+    return UserDetailsImpl
+        .builder()
+        .id(id.longValue())
+        .username(claims.getSubject())
+        .firstName(claims.get(FIRST_NAME_CLAIM, String.class))
+        .lastName(claims.get(LAST_NAME_CLAIM, String.class))
+        .admin(claims.get(ADMIN_CLAIM, Boolean.class))
+        .build();
+  }
+
+  public boolean validateJwtToken(String authToken) {
+    return getClaimsFromJwtToken(authToken) != null;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    verificationFailures.forEach((reason, count) ->
+        FunctionCounter.builder("jwt.verification.failures", count, LongAdder::sum)
+            .tag("reason", reason)
+            .description("JWTs rejected by signature or claims verification")
+            .register(registry));
+    CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwtVerifiedTokens");
+  }
+
+  Cache<String, Claims> verifiedTokens() {
+    return verifiedTokens;
+  }
+
+  /**
+   * Parses and verifies the token once; identical tokens seen again before they
+   * expire are answered from the cache without recomputing the signature.
+   */
+  private Claims verify(String token) {
+    if (token == null || token.isEmpty()) {
+      throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+    }
+
+    Claims claims = verifiedTokens.getIfPresent(token);
+    if (claims == null) {
+      claims = parser.parseClaimsJws(token).getBody();
+      verifiedTokens.put(token, claims);
+    }
+    return claims;
   }
 }
@@ -0,0 +1,113 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Token buckets for the auth endpoints, one per client IP and one per email.
+ * Each bucket is a single AtomicLong holding the time at which it will be full
+ * again (GCRA), updated with compare-and-set, so there are no locks. Buckets idle
+ * long enough to have refilled are evicted, and their number is capped.
+ */
+@Service
+public class AuthRateLimiter implements MeterBinder {
+  private final Limit ipLimit;
+  private final Limit emailLimit;
+  private final LongSupplier nanoClock;
+
+  @Autowired
+  public AuthRateLimiter(@Value("${oc.app.authRateLimit.ipCapacity:20}") int ipCapacity,
+                         @Value("${oc.app.authRateLimit.ipRefillPerMinute:20}") int ipRefillPerMinute,
+                         @Value("${oc.app.authRateLimit.emailCapacity:5}") int emailCapacity,
+                         @Value("${oc.app.authRateLimit.emailRefillPerMinute:5}") int emailRefillPerMinute,
+                         @Value("${oc.app.authRateLimit.maxBuckets:100000}") long maxBuckets) {
+    this(ipCapacity, ipRefillPerMinute, emailCapacity, emailRefillPerMinute, maxBuckets, System::nanoTime);
+  }
+
+  AuthRateLimiter(int ipCapacity, int ipRefillPerMinute, int emailCapacity, int emailRefillPerMinute,
+                  long maxBuckets, LongSupplier nanoClock) {
+    this.ipLimit = new Limit(ipCapacity, ipRefillPerMinute, maxBuckets);
+    this.emailLimit = new Limit(emailCapacity, emailRefillPerMinute, maxBuckets);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Takes one token from the IP bucket and, when an email is given, one from the
+   * email bucket. Returns 0 when the request may proceed, otherwise the number of
+   * seconds to wait before retrying.
+   */
+  public long acquire(String clientIp, String email) {
+    long now = nanoClock.getAsLong();
+
+    long waitNanos = ipLimit.acquire(clientIp, now);
+    if (waitNanos == 0 && email != null) {
+      waitNanos = emailLimit.acquire(email.trim().toLowerCase(Locale.ROOT), now);
+    }
+
+    return waitNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    ipLimit.bindTo(registry, "ip");
+    emailLimit.bindTo(registry, "email");
+  }
+
+  private static final class Limit {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongAdder rejected = new LongAdder();
+
+    Limit(int capacity, int refillPerMinute, long maxBuckets) {
+      this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+      this.burstNanos = intervalNanos * capacity;
+      this.buckets = Caffeine.newBuilder()
+          .maximumSize(maxBuckets)
+          .expireAfterAccess(burstNanos, TimeUnit.NANOSECONDS)
+          .build();
+    }
+
+    long acquire(String key, long now) {
+      AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(now));
+      while (true) {
+        long current = fullAt.get();
+        long next = Math.max(current, now) + intervalNanos;
+        long excess = next - now - burstNanos;
+        if (excess > 0) {
+          rejected.increment();
+          return excess;
+        }
+        if (fullAt.compareAndSet(current, next)) {
+          return 0;
+        }
+      }
+    }
+
+    void bindTo(MeterRegistry registry, String scope) {
+      FunctionCounter.builder("auth.rate.limit.rejections", rejected, LongAdder::sum)
+          .tag("scope", scope)
+          .description("Auth requests refused by the rate limiter")
+          .register(registry);
+      Gauge.builder("auth.rate.limit.buckets", buckets, Cache::estimatedSize)
+          .tag("scope", scope)
+          .description("Rate limit buckets currently tracked")
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
+import com.openclassrooms.starterjwt.payload.response.PasswordHashingStatsResponse;
+
+/**
+ * Runs the delegate's hashing on a small pool sized to the cores, so a burst of
+ * logins cannot occupy every request thread. When the queue is full, or a hash
+ * waits longer than the timeout, the call fails fast with ServiceUnavailableException.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final int queueCapacity;
+  private final long timeoutMs;
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder queueWaitNanos = new LongAdder();
+  private final LongAdder hashNanos = new LongAdder();
+  private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs) {
+    this.delegate = delegate;
+    this.queueCapacity = queueCapacity;
+    this.timeoutMs = timeoutMs;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  public PasswordHashingStatsResponse stats() {
+    long count = completed.sum();
+    return new PasswordHashingStatsResponse(
+        executor.getPoolSize(),
+        executor.getActiveCount(),
+        executor.getQueue().size(),
+        queueCapacity,
+        count,
+        rejected.sum(),
+        count == 0 ? 0 : toMillis(queueWaitNanos.sum()) / count,
+        toMillis(maxQueueWaitNanos.get()),
+        count == 0 ? 0 : toMillis(hashNanos.sum()) / count);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Hashes currently running")
+        .register(registry);
+    Gauge.builder("password.hashing.queued", executor, e -> e.getQueue().size())
+        .description("Hashes waiting for a thread")
+        .register(registry);
+    FunctionCounter.builder("password.hashing.rejected", rejected, LongAdder::sum)
+        .description("Hashes refused because the queue was full or the wait timed out")
+        .register(registry);
+    FunctionTimer.builder("password.hashing.queue.wait", this,
+            e -> e.completed.sum(), e -> e.queueWaitNanos.sum(), TimeUnit.NANOSECONDS)
+        .register(registry);
+    FunctionTimer.builder("password.hashing.duration", this,
+            e -> e.completed.sum(), e -> e.hashNanos.sum(), TimeUnit.NANOSECONDS)
+        .register(registry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T run(Callable<T> hashing) {
+    long enqueuedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        long startedAt = System.nanoTime();
+        long waited = startedAt - enqueuedAt;
+        queueWaitNanos.add(waited);
+        maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+        try {
+          return hashing.call();
+        } finally {
+          hashNanos.add(System.nanoTime() - startedAt);
+          completed.increment();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceUnavailableException();
+    }
+
+    try {
+      return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejected.increment();
+      throw new ServiceUnavailableException();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
@@ -0,0 +1,33 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers users whose tokens must no longer authenticate, e.g. deleted accounts.
+ * Entries only need to outlive the tokens issued before the revocation, so they
+ * expire after the token lifetime. The registry is local to this instance.
+ */
+@Service
+public class TokenRevocationService {
+  private final Cache<Long, Boolean> revokedUsers;
+
+  public TokenRevocationService(@Value("${oc.app.jwtExpirationMs}") long jwtExpirationMs) {
+    this.revokedUsers = Caffeine.newBuilder()
+        .expireAfterWrite(jwtExpirationMs, TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  public void revokeUser(Long userId) {
+    revokedUsers.put(userId, Boolean.TRUE);
+  }
+
+  public boolean isRevoked(Long userId) {
+    return revokedUsers.getIfPresent(userId) != null;
+  }
+}
@@ -0,0 +1,37 @@
+package com.openclassrooms.starterjwt.services;
+
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class DataVersionService {
+    public enum Resource {
+        SESSION,
+        TEACHER
+    }
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    public DataVersionService() {
+        for (Resource resource : Resource.values()) {
+            this.versions.put(resource, new AtomicLong());
+        }
+    }
+
+    public long current(Resource resource) {
+        return this.versions.get(resource).get();
+    }
+
+    public void increment(Resource resource) {
+        this.versions.get(resource).incrementAndGet();
+    }
+
+    public String etag(Resource resource) {
+        return "\"" + resource.name().toLowerCase() + "-" + this.instance + "-" + current(resource) + "\"";
+    }
+}
@@ -0,0 +1,117 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over registered emails. A negative answer means the email was
+ * never seen, so registration can go straight to the insert; a positive answer
+ * may be wrong and must be confirmed against the database. Until the startup
+ * rebuild completes every email is reported as possibly present.
+ */
+@Service
+@Log4j2
+public class EmailFilterService {
+    private final UserRepository userRepository;
+
+    private final int bitCount;
+
+    private final int hashCount;
+
+    private volatile AtomicLongArray bits;
+
+    public EmailFilterService(UserRepository userRepository,
+                              @Value("${oc.app.emailFilterExpectedInsertions:1000000}") int expectedInsertions,
+                              @Value("${oc.app.emailFilterFalsePositiveRate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        AtomicLongArray rebuilt = new AtomicLongArray((this.bitCount + 63) / 64);
+        long count = 0;
+        try (Stream<String> emails = this.userRepository.streamAllEmails()) {
+            Iterator<String> iterator = emails.iterator();
+            while (iterator.hasNext()) {
+                set(rebuilt, iterator.next());
+                count++;
+            }
+        }
+        this.bits = rebuilt;
+        log.info("Email filter rebuilt from {} users", count);
+    }
+
+    public boolean mightContain(String email) {
+        AtomicLongArray current = this.bits;
+        if (current == null) {
+            return true;
+        }
+
+        long[] hashes = hashes(email);
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = index(hashes, i);
+            if ((current.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String email) {
+        AtomicLongArray current = this.bits;
+        if (current != null) {
+            set(current, email);
+        }
+    }
+
+    private void set(AtomicLongArray target, String email) {
+        long[] hashes = hashes(email);
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = index(hashes, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = target.get(word);
+            } while ((current & mask) == 0 && !target.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private int index(long[] hashes, int i) {
+        // Kirsch-Mitzenmacher double hashing
+        return (int) Math.floorMod(hashes[0] + i * hashes[1], (long) this.bitCount);
+    }
+
+    private static long[] hashes(String email) {
+        byte[] bytes = email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x9e3779b97f4a7c15L;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+            h2 = Long.rotateLeft(h2 ^ (b & 0xff), 31) * 0xbf58476d1ce4e5b9L;
+        }
+        return new long[]{mix(h1), mix(h2) | 1};
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
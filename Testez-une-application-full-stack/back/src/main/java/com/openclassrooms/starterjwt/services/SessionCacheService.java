@@ -0,0 +1,85 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.payload.response.CacheStatsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+public class SessionCacheService implements MeterBinder {
+    private final DataVersionService dataVersionService;
+
+    private final Cache<Long, SessionDto> sessions;
+
+    // Keyed by the session data version, so a load that overlaps a write is stored under the old version
+    private final Cache<Long, List<SessionDto>> sessionLists;
+
+    public SessionCacheService(DataVersionService dataVersionService,
+                               @Value("${oc.app.sessionCacheMaxSize:10000}") long maxSize,
+                               @Value("${oc.app.sessionCacheTtlSeconds:60}") long ttlSeconds) {
+        this.dataVersionService = dataVersionService;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.sessionLists = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public SessionDto getById(Long id, Function<Long, SessionDto> loader) {
+        return this.sessions.get(id, loader);
+    }
+
+    /**
+     * Returns the list cached for the current data version. Writers bump the version after
+     * committing, so a list loaded from data read before the commit is never served afterwards.
+     */
+    public List<SessionDto> getAll(Supplier<List<SessionDto>> loader) {
+        long version = this.dataVersionService.current(DataVersionService.Resource.SESSION);
+        return this.sessionLists.get(version, key -> loader.get());
+    }
+
+    public void evict(Long id) {
+        this.sessions.invalidate(id);
+        this.sessionLists.invalidateAll();
+    }
+
+    public void evictList() {
+        this.sessionLists.invalidateAll();
+    }
+
+    public void evictAll() {
+        this.sessions.invalidateAll();
+        this.sessionLists.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.sessions, "sessions");
+        CaffeineCacheMetrics.monitor(registry, this.sessionLists, "sessionLists");
+    }
+
+    public Map<String, CacheStatsResponse> stats() {
+        Map<String, CacheStatsResponse> stats = new LinkedHashMap<>();
+        stats.put("sessions", CacheStatsResponse.of(this.sessions));
+        stats.put("sessionLists", CacheStatsResponse.of(this.sessionLists));
+
+        return stats;
+    }
+}
@@ -0,0 +1,152 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads sessions one line at a time from a CSV whose header names the columns
+ * (name, date, teacher_id, description, capacity). Fields may be double-quoted
+ * but must not span lines. A malformed row throws IllegalArgumentException
+ * from next() without stopping the iteration.
+ */
+public class SessionCsvReader implements Iterator<SessionDto> {
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private String nextLine;
+
+    public SessionCsvReader(BufferedReader reader) {
+        this.reader = reader;
+
+        String header = readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Missing CSV header");
+        }
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            this.columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : new String[]{"name", "date", "description"}) {
+            if (!this.columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing CSV column " + required);
+            }
+        }
+        this.nextLine = readNonBlankLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.nextLine != null;
+    }
+
+    @Override
+    public SessionDto next() {
+        if (this.nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        List<String> fields = split(this.nextLine);
+        this.nextLine = readNonBlankLine();
+
+        SessionDto sessionDto = new SessionDto();
+        sessionDto.setName(field(fields, "name"));
+        sessionDto.setDescription(field(fields, "description"));
+        sessionDto.setDate(parseDate(field(fields, "date")));
+        sessionDto.setTeacher_id(parseLong(field(fields, "teacher_id")));
+        String capacity = field(fields, "capacity");
+        sessionDto.setCapacity(capacity == null ? null : Integer.valueOf(capacity));
+        return sessionDto;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = this.columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static Date parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException e) {
+            // Fall through to the zone-less formats
+        }
+        try {
+            return Date.from(LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            // Fall through to a plain date
+        }
+        try {
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + value);
+        }
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private String readNonBlankLine() {
+        String line = readLine();
+        while (line != null && line.trim().isEmpty()) {
+            line = readLine();
+        }
+        return line;
+    }
+
+    private String readLine() {
+        try {
+            return this.reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.payload.response.ImportResponse;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class SessionImportService {
+    // Matches hibernate.jdbc.batch_size so each flush sends full JDBC batches
+    static final int FLUSH_SIZE = 50;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final EntityManager entityManager;
+
+    private final TeacherRepository teacherRepository;
+
+    private final Validator validator;
+
+    private final SessionCacheService sessionCacheService;
+
+    private final DataVersionService dataVersionService;
+
+    public SessionImportService(EntityManager entityManager,
+                                TeacherRepository teacherRepository,
+                                Validator validator,
+                                SessionCacheService sessionCacheService,
+                                DataVersionService dataVersionService) {
+        this.entityManager = entityManager;
+        this.teacherRepository = teacherRepository;
+        this.validator = validator;
+        this.sessionCacheService = sessionCacheService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Persists every valid row and reports the rejected ones. Rows are flushed and
+     * detached in batches so memory does not grow with the size of the import.
+     */
+    @Transactional
+    public ImportResponse importSessions(Iterator<SessionDto> rows) {
+        Map<Long, Boolean> knownTeachers = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        int imported = 0;
+        int rejected = 0;
+        int row = 0;
+
+        while (rows.hasNext()) {
+            row++;
+            String error;
+            try {
+                error = persist(rows.next(), knownTeachers);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+
+            if (error != null) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Row " + row + ": " + error);
+                }
+                continue;
+            }
+
+            imported++;
+            if (imported % FLUSH_SIZE == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        if (imported > 0) {
+            this.sessionCacheService.evictList();
+            this.dataVersionService.increment(DataVersionService.Resource.SESSION);
+        }
+
+        return new ImportResponse(imported, rejected, errors);
+    }
+
+    private String persist(SessionDto sessionDto, Map<Long, Boolean> knownTeachers) {
+        Set<ConstraintViolation<SessionDto>> violations = this.validator.validate(sessionDto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+
+        Long teacherId = sessionDto.getTeacher_id();
+        if (!knownTeachers.computeIfAbsent(teacherId, this.teacherRepository::existsById)) {
+            return "teacher_id " + teacherId + " not found";
+        }
+
+        // Participants go through the participate endpoints, which keep seats_taken in step
+        if (sessionDto.getUsers() != null && !sessionDto.getUsers().isEmpty()) {
+            return "users must be empty, participants are enrolled through /api/session/{id}/participate";
+        }
+
+        this.entityManager.persist(Session.builder()
+                .name(sessionDto.getName())
+                .date(sessionDto.getDate())
+                .description(sessionDto.getDescription())
+                .capacity(sessionDto.getCapacity())
+                .teacher(this.entityManager.getReference(Teacher.class, teacherId))
+                .users(new ArrayList<>())
+                .build());
+        return null;
+    }
+}
@@ -1,78 +1,316 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
 import com.openclassrooms.starterjwt.models.Session;
-import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.SessionCursor;
+import com.openclassrooms.starterjwt.payload.response.ParticipationResult;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeats;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class SessionService {
+    private static final Date MIN_DATE = new Date(0);
+    private static final Date MAX_DATE = new GregorianCalendar(9999, Calendar.DECEMBER, 31).getTime();
+    private static final int MAX_SEAT_ATTEMPTS = 5;
+
     private final SessionRepository sessionRepository;
 
     private final UserRepository userRepository;
 
-    public SessionService(SessionRepository sessionRepository, UserRepository userRepository) {
+    private final TeacherRepository teacherRepository;
+
+    private final SessionCacheService sessionCacheService;
+
+    private final DataVersionService dataVersionService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SessionService(SessionRepository sessionRepository,
+                          UserRepository userRepository,
+                          TeacherRepository teacherRepository,
+                          SessionCacheService sessionCacheService,
+                          DataVersionService dataVersionService,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
+        this.teacherRepository = teacherRepository;
+        this.sessionCacheService = sessionCacheService;
+        this.dataVersionService = dataVersionService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Session create(Session session) {
-        return this.sessionRepository.save(session);
+        Session created = saveAndFlush(withSeatsTaken(session));
+        this.sessionCacheService.evictList();
+        this.dataVersionService.increment(DataVersionService.Resource.SESSION);
+
+        return created;
     }
 
     public void delete(Long id) {
         this.sessionRepository.deleteById(id);
+        this.sessionCacheService.evict(id);
+        this.dataVersionService.increment(DataVersionService.Resource.SESSION);
     }
 
     public List<Session> findAll() {
         return this.sessionRepository.findAll();
     }
 
+    /**
+     * Loads one page with its participants initialized (batch-fetched), since open-in-view is off.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Session> findPage(SessionCursor after, Date from, Date to, int size) {
+        Date lower = from != null ? from : MIN_DATE;
+        Date upper = to != null ? to : MAX_DATE;
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<Session> page = after == null
+                ? this.sessionRepository.findPage(lower, upper, pageable)
+                : this.sessionRepository.findPageAfter(lower, upper, after.getDate(), after.getId(), pageable);
+        page.forEach(session -> Hibernate.initialize(session.getUsers()));
+
+        return page;
+    }
+
+    /**
+     * Streams every session in chunks, detaching each chunk once consumed so memory stays flat.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(int chunkSize, Consumer<List<Session>> consumer) {
+        try (Stream<Session> sessions = this.sessionRepository.streamAll()) {
+            List<Session> chunk = new ArrayList<>(chunkSize);
+            Iterator<Session> iterator = sessions.iterator();
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    consumer.accept(chunk);
+                    chunk.clear();
+                    this.entityManager.clear();
+                }
+            }
+        }
+    }
+
+    public List<SessionSummaryDto> findAllSummaries() {
+        return this.sessionRepository.findAllSummaries();
+    }
+
+    public Slice<SessionSummaryDto> findSummaryPage(SessionCursor after, Date from, Date to, int size) {
+        Date lower = from != null ? from : MIN_DATE;
+        Date upper = to != null ? to : MAX_DATE;
+        Pageable pageable = PageRequest.of(0, size);
+
+        if (after == null) {
+            return this.sessionRepository.findSummaryPage(lower, upper, pageable);
+        }
+
+        return this.sessionRepository.findSummaryPageAfter(lower, upper, after.getDate(), after.getId(), pageable);
+    }
+
     public Session getById(Long id) {
         return this.sessionRepository.findById(id).orElse(null);
     }
 
     public Session update(Long id, Session session) {
         session.setId(id);
-        return this.sessionRepository.save(session);
+        Session updated = this.transactionTemplate.execute(status -> {
+            // Seat claims on this session wait until the new participant list and count are written
+            this.sessionRepository.lockSeats(id).orElseThrow(NotFoundException::new);
+            return saveAndFlush(withSeatsTaken(session));
+        });
+        this.sessionCacheService.evict(id);
+        this.dataVersionService.increment(DataVersionService.Resource.SESSION);
+
+        return updated;
     }
 
     public void participate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        User user = this.userRepository.findById(userId).orElse(null);
-        if (session == null || user == null) {
-            throw new NotFoundException();
+        try {
+            withSeatRetry(() -> {
+                takeSeat(id, userId);
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request inserted the same participation first
+            throw new BadRequestException();
         }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(alreadyParticipate) {
-            throw new BadRequestException();
+        this.sessionCacheService.evict(id);
+        this.dataVersionService.increment(DataVersionService.Resource.SESSION);
+    }
+
+    public List<ParticipationResult> participateAll(Long id, List<Long> userIds) {
+        List<ParticipationResult> results;
+        try {
+            results = withSeatRetry(() -> takeSeats(id, new LinkedHashSet<>(userIds)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request enrolled one of the users after the duplicate check
+            throw new ConflictException();
         }
 
-        session.getUsers().add(user);
+        if (results.stream().anyMatch(result -> result.getStatus() == ParticipationResult.Status.ENROLLED)) {
+            this.sessionCacheService.evict(id);
+            this.dataVersionService.increment(DataVersionService.Resource.SESSION);
+        }
 
-        this.sessionRepository.save(session);
+        return results;
     }
 
     public void noLongerParticipate(Long id, Long userId) {
-        Session session = this.sessionRepository.findById(id).orElse(null);
-        if (session == null) {
+        if (!this.sessionRepository.existsById(id)) {
+            throw new NotFoundException();
+        }
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            boolean removed = this.sessionRepository.removeParticipant(id, userId) > 0;
+            if(!removed) {
+                throw new BadRequestException();
+            }
+            this.sessionRepository.releaseSeat(id);
+        });
+
+        this.sessionCacheService.evict(id);
+        this.dataVersionService.increment(DataVersionService.Resource.SESSION);
+    }
+
+    /**
+     * Sets the seat counter from the participant list, which must fit in the capacity.
+     */
+    private static Session withSeatsTaken(Session session) {
+        int participants = session.getUsers() != null ? session.getUsers().size() : 0;
+        if (session.getCapacity() != null && participants > session.getCapacity()) {
+            throw new BadRequestException("Error: " + participants + " participants exceed the capacity of "
+                    + session.getCapacity());
+        }
+
+        session.setSeatsTaken(participants);
+        return session;
+    }
+
+    private Session saveAndFlush(Session session) {
+        // The teacher is attached by reference, so check it up front; teachers are served from the second-level cache
+        Long teacherId = session.getTeacher() != null ? session.getTeacher().getId() : null;
+        if (teacherId != null && !this.teacherRepository.findById(teacherId).isPresent()) {
+            throw new BadRequestException("Error: Unknown teacher id: " + teacherId);
+        }
+
+        return this.sessionRepository.saveAndFlush(session);
+    }
+
+    private void takeSeat(Long id, Long userId) {
+        if (!this.userRepository.existsById(userId)) {
             throw new NotFoundException();
         }
 
-        boolean alreadyParticipate = session.getUsers().stream().anyMatch(o -> o.getId().equals(userId));
-        if(!alreadyParticipate) {
+        boolean alreadyParticipate = this.sessionRepository.countParticipation(id, userId) > 0;
+        if(alreadyParticipate) {
             throw new BadRequestException();
         }
 
-        session.setUsers(session.getUsers().stream().filter(user -> !user.getId().equals(userId)).collect(Collectors.toList()));
+        // Concurrent claims queue on the session row, each one sees the count left by the previous one
+        if (this.sessionRepository.claimSeats(id, 1) == 0) {
+            throw this.sessionRepository.existsById(id) ? new ConflictException() : new NotFoundException();
+        }
+
+        this.sessionRepository.addParticipant(id, userId);
+    }
+
+    private List<ParticipationResult> takeSeats(Long id, Set<Long> userIds) {
+        SessionSeats seats = this.sessionRepository.lockSeats(id).orElseThrow(NotFoundException::new);
+        Set<Long> existing = new HashSet<>(this.userRepository.findExistingIds(userIds));
+        Set<Long> enrolled = new HashSet<>(this.sessionRepository.findParticipantIds(id, userIds));
+
+        long freeSeats = seats.getCapacity() == null ? Long.MAX_VALUE : seats.getCapacity() - seats.getSeatsTaken();
+        List<Long> toInsert = new ArrayList<>();
+        List<ParticipationResult> results = new ArrayList<>();
+        for (Long userId : userIds) {
+            ParticipationResult.Status status;
+            if (!existing.contains(userId)) {
+                status = ParticipationResult.Status.USER_NOT_FOUND;
+            } else if (enrolled.contains(userId)) {
+                status = ParticipationResult.Status.ALREADY_ENROLLED;
+            } else if (toInsert.size() >= freeSeats) {
+                status = ParticipationResult.Status.SESSION_FULL;
+            } else {
+                status = ParticipationResult.Status.ENROLLED;
+                toInsert.add(userId);
+            }
+            results.add(new ParticipationResult(userId, status));
+        }
 
-        this.sessionRepository.save(session);
+        if (toInsert.isEmpty()) {
+            return results;
+        }
+
+        // The row lock taken above guarantees these seats are still free
+        this.sessionRepository.claimSeats(id, toInsert.size());
+        this.sessionRepository.addParticipants(id, toInsert);
+        return results;
+    }
+
+    /**
+     * Seat claims do not conflict, but a lock timeout or deadlock can still abort the transaction.
+     * Those are retried, and reported as 503 rather than as a full session once attempts run out.
+     */
+    private <T> T withSeatRetry(Supplier<T> seatTaker) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return this.transactionTemplate.execute(status -> seatTaker.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_SEAT_ATTEMPTS) {
+                    throw new ServiceUnavailableException();
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException();
+        }
     }
 }
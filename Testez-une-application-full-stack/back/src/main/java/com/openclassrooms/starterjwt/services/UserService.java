@@ -1,22 +1,59 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.services.TokenRevocationService;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class UserService {
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final TokenRevocationService tokenRevocationService;
+
+    public UserService(UserRepository userRepository, TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     public void delete(Long id) {
         this.userRepository.deleteById(id);
+        this.tokenRevocationService.revokeUser(id);
     }
 
     public User findById(Long id) {
         return this.userRepository.findById(id).orElse(null);
     }
+
+    /**
+     * Loads the given users with a single query, in request order and without duplicates.
+     * Throws BadRequestException naming the ids that do not exist.
+     */
+    public List<User> findAllById(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, User> found = this.userRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        if (found.size() != requested.size()) {
+            String missing = requested.stream()
+                    .filter(id -> !found.containsKey(id))
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", "));
+            throw new BadRequestException("Error: Unknown user id(s): " + missing);
+        }
+
+        return requested.stream().map(found::get).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,29 @@
+-- Identifiers become BIGINT to match the Long ids of the JPA entities
+ALTER TABLE SESSIONS DROP FOREIGN KEY SESSIONS_ibfk_1;
+ALTER TABLE PARTICIPATE DROP FOREIGN KEY PARTICIPATE_ibfk_1;
+ALTER TABLE PARTICIPATE DROP FOREIGN KEY PARTICIPATE_ibfk_2;
+
+ALTER TABLE TEACHERS MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
+ALTER TABLE USERS MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
+ALTER TABLE SESSIONS MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
+ALTER TABLE SESSIONS MODIFY teacher_id BIGINT;
+
+-- Drop duplicate or dangling participations before PARTICIPATE gets its primary key
+CREATE TABLE PARTICIPATE_DEDUP AS
+  SELECT DISTINCT user_id, session_id FROM PARTICIPATE
+  WHERE user_id IS NOT NULL AND session_id IS NOT NULL;
+DELETE FROM PARTICIPATE;
+INSERT INTO PARTICIPATE (user_id, session_id) SELECT user_id, session_id FROM PARTICIPATE_DEDUP;
+DROP TABLE PARTICIPATE_DEDUP;
+
+ALTER TABLE PARTICIPATE MODIFY user_id BIGINT NOT NULL;
+ALTER TABLE PARTICIPATE MODIFY session_id BIGINT NOT NULL;
+ALTER TABLE PARTICIPATE ADD CONSTRAINT PK_PARTICIPATE PRIMARY KEY (session_id, user_id);
+CREATE INDEX IDX_PARTICIPATE_USER_SESSION ON PARTICIPATE (user_id, session_id);
+
+ALTER TABLE SESSIONS ADD CONSTRAINT FK_SESSIONS_TEACHER FOREIGN KEY (teacher_id) REFERENCES TEACHERS (id);
+ALTER TABLE PARTICIPATE ADD CONSTRAINT FK_PARTICIPATE_USER FOREIGN KEY (user_id) REFERENCES USERS (id);
+ALTER TABLE PARTICIPATE ADD CONSTRAINT FK_PARTICIPATE_SESSION FOREIGN KEY (session_id) REFERENCES SESSIONS (id);
+
+-- Serves date range filters and the (date, id) keyset ordering of the session listing
+CREATE INDEX IDX_SESSIONS_DATE_ID ON SESSIONS (date, id);
@@ -0,0 +1,7 @@
+-- NULL capacity means unlimited seats
+ALTER TABLE SESSIONS ADD COLUMN capacity INT NULL;
+
+-- Seats are claimed with one conditional increment of this counter, which the
+-- database serializes on the session row; only lock timeouts and deadlocks are retried
+ALTER TABLE SESSIONS ADD COLUMN seats_taken INT NOT NULL DEFAULT 0;
+UPDATE SESSIONS SET seats_taken = (SELECT COUNT(*) FROM PARTICIPATE p WHERE p.session_id = SESSIONS.id);
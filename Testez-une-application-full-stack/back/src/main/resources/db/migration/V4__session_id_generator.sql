@@ -0,0 +1,9 @@
+-- Session ids are handed out in blocks from this table so Hibernate can batch
+-- inserts (IDENTITY forces one round trip per row). next_val is the first free id.
+CREATE TABLE ID_GENERATORS (
+  name VARCHAR(64) NOT NULL PRIMARY KEY,
+  next_val BIGINT NOT NULL
+);
+
+INSERT INTO ID_GENERATORS (name, next_val)
+SELECT 'SESSIONS', COALESCE(MAX(id), 0) + 1 FROM SESSIONS;
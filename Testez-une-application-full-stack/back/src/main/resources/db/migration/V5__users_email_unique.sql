@@ -0,0 +1,4 @@
+-- The entity already declares email unique; enforce it so concurrent sign-ups
+-- with the same address cannot both succeed. Duplicate rows must be merged by
+-- hand before this migration can run.
+ALTER TABLE USERS ADD CONSTRAINT UK_USERS_EMAIL UNIQUE (email);
@@ -0,0 +1,62 @@
+package com.openclassrooms.starterjwt;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class ActuatorEndpointsTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void testHealthIsPublic() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/actuator/health"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("\"status\":\"UP\"")));
+  }
+
+  @Test
+  void testPrometheusScrapeExposesApplicationMetrics() throws Exception {
+    // Given - one request through a controller and one rejected token
+    mockMvc.perform(get("/api/teacher")
+            .header("Authorization", "Bearer not.a.jwt"))
+        .andExpect(status().isUnauthorized());
+
+    // When & Then
+    mockMvc.perform(get("/actuator/prometheus").with(user("prometheus")))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+        .andExpect(content().string(containsString("hikaricp_connections_active")))
+        .andExpect(content().string(containsString("hibernate_statements_total")))
+        .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+        .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{entityManagerFactory=\"entityManagerFactory\",region=\"teachers\",result=\"hit\",}")))
+        .andExpect(content().string(containsString("hibernate_cache_query_requests_total")))
+        .andExpect(content().string(containsString("jwt_verification_failures_total{reason=\"malformed\",}")))
+        .andExpect(content().string(containsString("cache_gets_total{cache=\"sessions\"")))
+        .andExpect(content().string(containsString("auth_rate_limit_rejections_total{scope=\"ip\",}")))
+        .andExpect(content().string(containsString("password_hashing_duration_seconds_count")));
+  }
+
+  @Test
+  void testOtherEndpointsRequireAuthentication() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/actuator/metrics"))
+        .andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isUnauthorized());
+  }
+}
@@ -0,0 +1,60 @@
+package com.openclassrooms.starterjwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "management.server.port=0")
+@AutoConfigureMetrics
+class ManagementPortTest {
+
+  @LocalServerPort
+  private int serverPort;
+
+  @LocalManagementPort
+  private int managementPort;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  void testPrometheusScrapeNeedsNoTokenOnTheManagementPort() {
+    // When
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertTrue(response.getBody().contains("jwt_verification_failures_total"));
+  }
+
+  @Test
+  void testApiPortDoesNotServeActuator() {
+    // When
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + serverPort + "/actuator/prometheus", String.class);
+
+    // Then
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+  }
+
+  @Test
+  void testManagementPortKeepsOtherPathsBehindAuthentication() {
+    // When
+    ResponseEntity<String> response = restTemplate.getForEntity(
+        "http://localhost:" + managementPort + "/api/session", String.class);
+
+    // Then
+    assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+  }
+}
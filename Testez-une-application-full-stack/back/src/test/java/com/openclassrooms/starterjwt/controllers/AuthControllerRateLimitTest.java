@@ -0,0 +1,43 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+    "oc.app.authRateLimit.emailCapacity=2",
+    "oc.app.authRateLimit.emailRefillPerMinute=1"
+})
+@AutoConfigureMockMvc
+class AuthControllerRateLimitTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void testRepeatedLoginsForOneEmailAreThrottled() throws Exception {
+    // Given
+    mockMvc.perform(login("throttled@test.com")).andExpect(status().isUnauthorized());
+    mockMvc.perform(login("throttled@test.com")).andExpect(status().isUnauthorized());
+
+    // When & Then
+    mockMvc.perform(login("throttled@test.com"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "60"))
+        .andExpect(jsonPath("$.message").value("Error: Too many attempts, retry later!"));
+    mockMvc.perform(login("other@test.com")).andExpect(status().isUnauthorized());
+  }
+
+  private static MockHttpServletRequestBuilder login(String email) {
+    return post("/api/auth/login")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}");
+  }
+}
@@ -0,0 +1,103 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.SignupRequest;
+import com.openclassrooms.starterjwt.payload.response.MessageResponse;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.AuthRateLimiter;
+import com.openclassrooms.starterjwt.services.EmailFilterService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// The constraint names are the ones Hibernate extracts from MySQL messages
+@ExtendWith(MockitoExtension.class)
+class AuthControllerRegisterTest {
+
+  @Mock
+  private AuthenticationManager authenticationManager;
+
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
+  @Mock
+  private JwtUtils jwtUtils;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private AuthRateLimiter authRateLimiter;
+
+  @Mock
+  private EmailFilterService emailFilterService;
+
+  @InjectMocks
+  private AuthController authController;
+
+  private SignupRequest signupRequest;
+
+  @BeforeEach
+  void setUp() {
+    signupRequest = new SignupRequest();
+    signupRequest.setEmail("register@test.com");
+    signupRequest.setFirstName("Register");
+    signupRequest.setLastName("User");
+    signupRequest.setPassword("password123");
+
+    when(authRateLimiter.acquire(anyString(), anyString())).thenReturn(0L);
+    when(emailFilterService.mightContain("register@test.com")).thenReturn(false);
+    when(passwordEncoder.encode("password123")).thenReturn("hash");
+  }
+
+  @Test
+  void testDuplicateEmailIsReportedAsTaken() {
+    // Given
+    when(userRepository.save(any(User.class))).thenThrow(constraintViolation("UK_USERS_EMAIL"));
+
+    // When
+    ResponseEntity<?> response = authController.registerUser(signupRequest, new MockHttpServletRequest());
+
+    // Then
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals("Error: Email is already taken!", ((MessageResponse) response.getBody()).getMessage());
+    verify(emailFilterService, never()).add(anyString());
+  }
+
+  @Test
+  void testOtherConstraintViolationsAreRethrown() {
+    // Given
+    DataIntegrityViolationException violation = constraintViolation(null);
+    when(userRepository.save(any(User.class))).thenThrow(violation);
+
+    // When
+    DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+        () -> authController.registerUser(signupRequest, new MockHttpServletRequest()));
+
+    // Then
+    assertSame(violation, e);
+  }
+
+  private static DataIntegrityViolationException constraintViolation(String constraint) {
+    return new DataIntegrityViolationException("could not execute statement",
+        new ConstraintViolationException("could not execute statement", new SQLException(), constraint));
+  }
+}
@@ -0,0 +1,139 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.LoginRequest;
+import com.openclassrooms.starterjwt.payload.request.SignupRequest;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.support.StatementBudget;
+import com.openclassrooms.starterjwt.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCountingConfiguration.class)
+class AuthControllerStatementBudgetTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("budget-auth@test.com", "Budget", "Auth",
+        passwordEncoder.encode("password123"), false));
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.delete(user);
+    userRepository.findByEmail("budget-new@test.com").ifPresent(userRepository::delete);
+  }
+
+  @Test
+  void testLogin() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    login();
+
+    // Then
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  void testAuthenticatedRequestAddsNoStatements() throws Exception {
+    // Given
+    String token = login();
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/user/" + user.getId())
+            .header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+
+    // Then (the principal comes from the token, only the user lookup hits the database)
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  void testRegister() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    register("budget-new@test.com");
+
+    // Then
+    StatementBudget.assertAtMost(0, 1, 0, 0);
+  }
+
+  @Test
+  void testRegisterExistingEmail() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/auth/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(signupRequest(user.getEmail()))))
+        .andExpect(status().isBadRequest());
+
+    // Then (at most an existence check and the rejected insert)
+    StatementBudget.assertAtMost(1, 1, 0, 0);
+  }
+
+  private String login() throws Exception {
+    LoginRequest loginRequest = new LoginRequest();
+    loginRequest.setEmail(user.getEmail());
+    loginRequest.setPassword("password123");
+
+    String response = mockMvc.perform(post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    return objectMapper.readTree(response).get("token").asText();
+  }
+
+  private void register(String email) throws Exception {
+    mockMvc.perform(post("/api/auth/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(signupRequest(email))))
+        .andExpect(status().isOk());
+  }
+
+  private SignupRequest signupRequest(String email) {
+    SignupRequest signupRequest = new SignupRequest();
+    signupRequest.setEmail(email);
+    signupRequest.setFirstName("Budget");
+    signupRequest.setLastName("New");
+    signupRequest.setPassword("password123");
+    return signupRequest;
+  }
+}
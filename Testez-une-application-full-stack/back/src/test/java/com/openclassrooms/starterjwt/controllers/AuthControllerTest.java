@@ -1,22 +1,31 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.payload.request.LoginRequest;
 import com.openclassrooms.starterjwt.payload.request.SignupRequest;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.support.StatementBudget;
+import com.openclassrooms.starterjwt.support.StatementCountingConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(StatementCountingConfiguration.class)
 @Transactional
 class AuthControllerTest {
 
@@ -26,6 +35,12 @@ class AuthControllerTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
   @Test
   void testRegisterUser() throws Exception {
     // Given
@@ -91,7 +106,86 @@ class AuthControllerTest {
         .andExpect(jsonPath("$.username").value("login@test.com"));
   }
 
-  // NOTE: Branch coverage at 75%
-  // Missing branch is defensive null check in login where user lookup fails
-  // despite successful authentication.
-}
\ No newline at end of file
+  @Test
+  void testLoginRehashesWeakerPassword() throws Exception {
+    // Given (hash stored with a lower strength than configured)
+    User user = userRepository.save(new User("rehash@test.com", "Re", "Hash",
+        new BCryptPasswordEncoder(4).encode("password123"), false));
+
+    LoginRequest loginRequest = new LoginRequest();
+    loginRequest.setEmail("rehash@test.com");
+    loginRequest.setPassword("password123");
+
+    // When
+    mockMvc.perform(post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isOk());
+
+    // Then
+    assertTrue(userRepository.findById(user.getId()).get().getPassword().startsWith("$2a$05$"));
+  }
+
+  @Test
+  void testLoginQueriesTheUserOnce() throws Exception {
+    // Given
+    userRepository.save(new User("once@test.com", "Admin", "Once",
+        passwordEncoder.encode("password123"), true));
+
+    LoginRequest loginRequest = new LoginRequest();
+    loginRequest.setEmail("once@test.com");
+    loginRequest.setPassword("password123");
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.admin").value(true))
+        .andExpect(jsonPath("$.firstName").value("Once"));
+
+    // Then
+    StatementBudget.assertExactly(1, 0, 0, 0);
+  }
+
+  @Test
+  void testRegisterNewEmailInsertsOnly() throws Exception {
+    // Given
+    SignupRequest signupRequest = new SignupRequest();
+    signupRequest.setEmail("fresh@test.com");
+    signupRequest.setFirstName("Fresh");
+    signupRequest.setLastName("User");
+    signupRequest.setPassword("password123");
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/auth/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(signupRequest)))
+        .andExpect(status().isOk());
+
+    // Then
+    StatementBudget.assertExactly(0, 1, 0, 0);
+  }
+
+  @Test
+  void testRegisterEmailUnknownToFilterHitsUniqueIndex() throws Exception {
+    // Given - inserted behind the filter's back, as another instance would
+    userRepository.save(new User("elsewhere@test.com", "User", "Elsewhere",
+        passwordEncoder.encode("password123"), false));
+
+    SignupRequest signupRequest = new SignupRequest();
+    signupRequest.setEmail("elsewhere@test.com");
+    signupRequest.setFirstName("Elsewhere");
+    signupRequest.setLastName("User");
+    signupRequest.setPassword("password123");
+
+    // When & Then
+    mockMvc.perform(post("/api/auth/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(signupRequest)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: Email is already taken!"));
+  }
+}
@@ -0,0 +1,389 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static com.openclassrooms.starterjwt.support.AdminUser.admin;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.BulkParticipateRequest;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionCacheService;
+import com.openclassrooms.starterjwt.support.StatementBudget;
+import com.openclassrooms.starterjwt.support.StatementCountingConfiguration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Statement budgets for every SessionController route against 100 sessions of 50
+ * participants each. The budgets must not grow with the data: an N+1 regression
+ * fails here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCountingConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SessionControllerStatementBudgetTest {
+
+  private static final int SESSION_COUNT = 100;
+  private static final int USER_COUNT = 50;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private SessionCacheService sessionCacheService;
+
+  private Teacher teacher;
+  private List<User> users;
+  private User newcomer;
+  private List<Session> sessions;
+
+  @BeforeAll
+  void seed() {
+    teacher = teacherRepository.save(new Teacher().setFirstName("Budget").setLastName("Teacher"));
+
+    users = new ArrayList<>();
+    for (int i = 0; i < USER_COUNT; i++) {
+      users.add(new User("budget" + i + "@test.com", "Budget", "User", "password", false));
+    }
+    users = userRepository.saveAll(users);
+    newcomer = userRepository.save(new User("budget-newcomer@test.com", "Budget", "Newcomer", "password", false));
+
+    sessions = new ArrayList<>();
+    for (int i = 0; i < SESSION_COUNT; i++) {
+      sessions.add(Session.builder()
+          .name("Budget Session " + i)
+          .description("Statement budget")
+          .date(new Date())
+          .teacher(teacher)
+          .users(new ArrayList<>(users))
+          .build());
+    }
+    sessions = new ArrayList<>(sessionRepository.saveAll(sessions));
+  }
+
+  @AfterAll
+  void cleanUp() {
+    List<Long> budgetTeacherSessions = sessionRepository.findAll().stream()
+        .filter(session -> session.getTeacher() != null && teacher.getId().equals(session.getTeacher().getId()))
+        .map(Session::getId)
+        .collect(Collectors.toList());
+    sessionRepository.deleteAllById(budgetTeacherSessions);
+    userRepository.deleteAll(users);
+    userRepository.delete(newcomer);
+    teacherRepository.delete(teacher);
+  }
+
+  @BeforeEach
+  void setUp() {
+    sessionCacheService.evictAll();
+  }
+
+  @Test
+  @WithMockUser
+  void testFindById() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/session/" + sessions.get(0).getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users.length()").value(USER_COUNT));
+
+    // Then (session and its participants in a single join)
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindAll() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/session"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(SESSION_COUNT)));
+
+    // Then (one fetch join, independent of the number of sessions)
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindPage() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/session").param("size", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions.length()").value(SESSION_COUNT));
+
+    // Then (page query plus one batched participant fetch)
+    StatementBudget.assertAtMost(2, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindAllSummaries() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/session/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(SESSION_COUNT)));
+
+    // Then
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindSummaryPage() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/session/summary").param("size", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions.length()").value(SESSION_COUNT));
+
+    // Then
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testExport() throws Exception {
+    // Given
+    int chunks = (int) Math.ceil(sessionRepository.count() / 100.0);
+    StatementBudget.reset();
+
+    // When
+    MvcResult result = mockMvc.perform(get("/api/session/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(SESSION_COUNT)));
+
+    // Then (the streamed query plus one participant fetch per chunk of 100 sessions)
+    StatementBudget.assertAtMost(1 + chunks, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testCacheStats() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/session/cache/stats").with(admin()))
+        .andExpect(status().isOk());
+
+    // Then
+    StatementBudget.assertAtMost(0, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testCreate() throws Exception {
+    // Given
+    SessionDto sessionDto = sessionDto("Budget Created");
+    sessionDto.setUsers(users.stream().map(User::getId).collect(Collectors.toList()));
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users.length()").value(USER_COUNT));
+
+    // Then (user lookup, id block, session insert, participant batch)
+    StatementBudget.assertAtMost(2, 2, 1, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateAll() throws Exception {
+    // Given
+    List<SessionDto> rows = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      rows.add(sessionDto("Budget Bulk " + i));
+    }
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/session/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(rows)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(120));
+
+    // Then (teacher check, id blocks and one insert batch per 50 rows)
+    StatementBudget.assertAtMost(4, 3, 3, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testImportCsv() throws Exception {
+    // Given
+    StringBuilder csv = new StringBuilder("name,date,teacher_id,description\n");
+    for (int i = 0; i < 120; i++) {
+      csv.append("Budget Import ").append(i).append(",2030-03-01,").append(teacher.getId()).append(",Batch\n");
+    }
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/session/import")
+            .contentType("text/csv")
+            .content(csv.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(120));
+
+    // Then (teacher check, id blocks and one insert batch per 50 rows)
+    StatementBudget.assertAtMost(4, 3, 3, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testUpdate() throws Exception {
+    // Given
+    SessionDto sessionDto = sessionDto("Budget Updated");
+    sessionDto.setUsers(users.stream().map(User::getId).collect(Collectors.toList()));
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(put("/api/session/" + sessions.get(1).getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isOk());
+
+    // Then (the session row is locked, the participant list rewritten with one delete and one batch)
+    StatementBudget.assertAtMost(4, 1, 1, 1);
+  }
+
+  @Test
+  @WithMockUser
+  void testDelete() throws Exception {
+    // Given
+    Session doomed = sessionRepository.save(Session.builder()
+        .name("Budget Doomed")
+        .description("Statement budget")
+        .date(new Date())
+        .teacher(teacher)
+        .users(new ArrayList<>(users))
+        .build());
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(delete("/api/session/" + doomed.getId()))
+        .andExpect(status().isOk());
+
+    // Then (participant rows go in one statement, not one per user)
+    StatementBudget.assertAtMost(2, 0, 0, 2);
+  }
+
+  @Test
+  @WithMockUser
+  void testParticipate() throws Exception {
+    // Given
+    Session session = sessions.get(2);
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/session/" + session.getId() + "/participate/" + newcomer.getId()))
+        .andExpect(status().isOk());
+
+    // Then (user check, duplicate check, the seat claim and a single insert)
+    StatementBudget.assertAtMost(2, 1, 1, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testParticipateAll() throws Exception {
+    // Given
+    BulkParticipateRequest request = new BulkParticipateRequest();
+    request.setUserIds(Arrays.asList(users.get(0).getId(), newcomer.getId(), 999999L));
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(post("/api/session/" + sessions.get(3).getId() + "/participate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[1].status").value("ENROLLED"));
+
+    // Then (seat lock, two id-only lookups, the seat claim and one participant batch)
+    StatementBudget.assertAtMost(3, 1, 1, 0);
+    assertEquals(USER_COUNT + 1, sessionRepository.findById(sessions.get(3).getId()).get().getUsers().size());
+  }
+
+  @Test
+  @WithMockUser
+  void testNoLongerParticipate() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(delete("/api/session/" + sessions.get(4).getId() + "/participate/" + users.get(0).getId()))
+        .andExpect(status().isOk());
+
+    // Then (existence check, a single delete and the seat release)
+    StatementBudget.assertAtMost(1, 0, 1, 1);
+  }
+
+  private SessionDto sessionDto(String name) {
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName(name);
+    sessionDto.setDescription("Statement budget");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(teacher.getId());
+    return sessionDto;
+  }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.request.BulkParticipateRequest;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,9 +17,12 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import org.springframework.transaction.annotation.Transactional;
 
+import static com.openclassrooms.starterjwt.support.AdminUser.admin;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -90,6 +94,93 @@ class SessionControllerTest {
         .andExpect(jsonPath("$").isArray());
   }
 
+  @Test
+  @WithMockUser
+  void testFindSessionsPaginated() throws Exception {
+    // Given (three sessions inside an isolated date window)
+    for (int day = 1; day <= 3; day++) {
+      SessionDto sessionDto = new SessionDto();
+      sessionDto.setName("Paged Session " + day);
+      sessionDto.setDescription("Paged");
+      sessionDto.setDate(new Date(4102444800000L + day * 86400000L));
+      sessionDto.setTeacher_id(testTeacher.getId());
+
+      mockMvc.perform(post("/api/session")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(sessionDto)))
+          .andExpect(status().isOk());
+    }
+
+    // When & Then (first page)
+    String response = mockMvc.perform(get("/api/session")
+            .param("from", "2100-01-01")
+            .param("to", "2100-02-01")
+            .param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions.length()").value(2))
+        .andExpect(jsonPath("$.sessions[0].name").value("Paged Session 1"))
+        .andExpect(jsonPath("$.sessions[1].name").value("Paged Session 2"))
+        .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+        .andReturn().getResponse().getContentAsString();
+
+    String nextCursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+    // When & Then (second and last page)
+    mockMvc.perform(get("/api/session")
+            .param("from", "2100-01-01")
+            .param("to", "2100-02-01")
+            .param("size", "2")
+            .param("cursor", nextCursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions.length()").value(1))
+        .andExpect(jsonPath("$.sessions[0].name").value("Paged Session 3"))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser
+  void testFindSessionsPaginatedInvalidParameters() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/session").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+
+    mockMvc.perform(get("/api/session").param("size", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void testFindSessionSummaries() throws Exception {
+    // Given
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Summary Session");
+    sessionDto.setDescription("Summarized");
+    sessionDto.setDate(new Date(4102444800000L));
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setUsers(Collections.singletonList(testUser.getId()));
+
+    mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isOk());
+
+    // When & Then
+    mockMvc.perform(get("/api/session/summary")
+            .param("from", "2100-01-01")
+            .param("to", "2100-02-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions.length()").value(1))
+        .andExpect(jsonPath("$.sessions[0].name").value("Summary Session"))
+        .andExpect(jsonPath("$.sessions[0].teacher_id").value(testTeacher.getId()))
+        .andExpect(jsonPath("$.sessions[0].participantCount").value(1))
+        .andExpect(jsonPath("$.sessions[0].description").doesNotExist())
+        .andExpect(jsonPath("$.sessions[0].users").doesNotExist());
+
+    mockMvc.perform(get("/api/session/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$").isArray());
+  }
+
   @Test
   @WithMockUser
   void testFindSessionById() throws Exception {
@@ -113,6 +204,81 @@ class SessionControllerTest {
         .andExpect(jsonPath("$.name").value("Test Session"));
   }
 
+  @Test
+  @WithMockUser
+  void testFindSessionByIdServedFromCache() throws Exception {
+    // Given (Create a session first)
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Cached Session");
+    sessionDto.setDescription("Cached Description");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+
+    String response = mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andReturn().getResponse().getContentAsString();
+
+    SessionDto createdSession = objectMapper.readValue(response, SessionDto.class);
+
+    String stats = mockMvc.perform(get("/api/session/cache/stats").with(admin()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    long hitsBefore = objectMapper.readTree(stats).path("sessions").path("hitCount").asLong();
+
+    // When
+    mockMvc.perform(get("/api/session/" + createdSession.getId()))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/api/session/" + createdSession.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Cached Session"));
+
+    // Then
+    mockMvc.perform(get("/api/session/cache/stats").with(admin()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sessions.hitCount").value(hitsBefore + 1));
+  }
+
+  @Test
+  @WithMockUser
+  void testCacheStatsRequireAdmin() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/session/cache/stats"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser
+  void testFindAllSessionsNotModifiedUntilWrite() throws Exception {
+    // Given
+    String etag = mockMvc.perform(get("/api/session"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    // When & Then (unchanged data)
+    mockMvc.perform(get("/api/session").header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    // When & Then (a write bumps the version)
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Versioned Session");
+    sessionDto.setDescription("Versioned");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+
+    mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/session").header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache"))
+        .andExpect(jsonPath("$[?(@.name == 'Versioned Session')]").exists());
+  }
+
   @Test
   @WithMockUser
   void testFindSessionByIdNotFound() throws Exception {
@@ -238,4 +404,286 @@ class SessionControllerTest {
     mockMvc.perform(post("/api/session/" + createdSession.getId() + "/participate/" + testUser.getId()))
         .andExpect(status().isOk());
   }
-}
\ No newline at end of file
+
+  @Test
+  @WithMockUser
+  void testParticipateTwiceThenLeave() throws Exception {
+    // Given (Create a session first)
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Participation Session");
+    sessionDto.setDescription("Test participation");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+
+    String response = mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andReturn().getResponse().getContentAsString();
+
+    SessionDto createdSession = objectMapper.readValue(response, SessionDto.class);
+    String participation = "/api/session/" + createdSession.getId() + "/participate/" + testUser.getId();
+
+    // When & Then
+    mockMvc.perform(post(participation))
+        .andExpect(status().isOk());
+    mockMvc.perform(post(participation))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/session/" + createdSession.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users[0]").value(testUser.getId()));
+    mockMvc.perform(delete(participation))
+        .andExpect(status().isOk());
+    mockMvc.perform(delete(participation))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(post("/api/session/" + createdSession.getId() + "/participate/999999"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser
+  void testParticipateAllReportsEachUser() throws Exception {
+    // Given (a two-seat session where testUser already holds one seat)
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Group Session");
+    sessionDto.setDescription("Corporate group");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setCapacity(2);
+
+    String response = mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andReturn().getResponse().getContentAsString();
+
+    SessionDto createdSession = objectMapper.readValue(response, SessionDto.class);
+    mockMvc.perform(post("/api/session/" + createdSession.getId() + "/participate/" + testUser.getId()))
+        .andExpect(status().isOk());
+
+    User second = userRepository.save(new User("group1@test.com", "Group", "One", "password", false));
+    User third = userRepository.save(new User("group2@test.com", "Group", "Two", "password", false));
+    BulkParticipateRequest request = new BulkParticipateRequest();
+    request.setUserIds(Arrays.asList(testUser.getId(), second.getId(), third.getId(), 999999L));
+
+    // When & Then
+    mockMvc.perform(post("/api/session/" + createdSession.getId() + "/participate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value("ALREADY_ENROLLED"))
+        .andExpect(jsonPath("$[1].status").value("ENROLLED"))
+        .andExpect(jsonPath("$[2].status").value("SESSION_FULL"))
+        .andExpect(jsonPath("$[3].status").value("USER_NOT_FOUND"));
+    mockMvc.perform(get("/api/session/" + createdSession.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users.length()").value(2));
+  }
+
+  @Test
+  @WithMockUser
+  void testParticipateAllWithoutUsers() throws Exception {
+    // Given
+    BulkParticipateRequest request = new BulkParticipateRequest();
+    request.setUserIds(Collections.emptyList());
+
+    // When & Then
+    mockMvc.perform(post("/api/session/1/participate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateAllFromJsonArray() throws Exception {
+    // Given
+    String body = "["
+        + "{\"name\":\"Bulk 1\",\"date\":\"2030-01-01\",\"description\":\"First\",\"teacher_id\":" + testTeacher.getId() + "},"
+        + "{\"name\":\"Bulk 2\",\"date\":\"2030-01-02\",\"description\":\"Second\",\"capacity\":12,\"teacher_id\":" + testTeacher.getId() + "},"
+        + "{\"name\":\"\",\"date\":\"2030-01-03\",\"description\":\"No name\",\"teacher_id\":" + testTeacher.getId() + "},"
+        + "{\"name\":\"Bulk 4\",\"date\":\"2030-01-04\",\"description\":\"Ghost\",\"teacher_id\":999999}"
+        + "]";
+
+    // When & Then
+    mockMvc.perform(post("/api/session/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(2))
+        .andExpect(jsonPath("$.errors[0]").value("Row 3: name must not be blank"))
+        .andExpect(jsonPath("$.errors[1]").value("Row 4: teacher_id 999999 not found"));
+    mockMvc.perform(get("/api/session"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[?(@.name == 'Bulk 2')].capacity").value(12));
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateAllRejectsRowsWithParticipants() throws Exception {
+    // Given
+    String body = "["
+        + "{\"name\":\"Bulk users\",\"date\":\"2030-01-05\",\"description\":\"Enrolled\",\"teacher_id\":" + testTeacher.getId()
+        + ",\"users\":[" + testUser.getId() + "]}"
+        + "]";
+
+    // When & Then
+    mockMvc.perform(post("/api/session/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(0))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.errors[0]")
+            .value("Row 1: users must be empty, participants are enrolled through /api/session/{id}/participate"));
+    mockMvc.perform(get("/api/session"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[?(@.name == 'Bulk users')]").isEmpty());
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateAllWithMalformedJson() throws Exception {
+    // When & Then
+    mockMvc.perform(post("/api/session/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"name\":\"Broken\",\"date\":\"not a date\"}]"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void testImportCsv() throws Exception {
+    // Given
+    String csv = "name,date,teacher_id,description,capacity\n"
+        + "Morning flow,2030-02-01T08:00:00Z," + testTeacher.getId() + ",\"Slow, gentle \"\"flow\"\"\",10\n"
+        + "\n"
+        + "Evening flow,2030-02-01," + testTeacher.getId() + ",Stretching,\n"
+        + "Broken date,tomorrow,,Nope,\n";
+
+    // When & Then
+    mockMvc.perform(post("/api/session/import")
+            .contentType("text/csv")
+            .content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.errors[0]").value("Row 3: Invalid date tomorrow"));
+    mockMvc.perform(get("/api/session"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[?(@.name == 'Morning flow')].description").value("Slow, gentle \"flow\""));
+  }
+
+  @Test
+  @WithMockUser
+  void testImportCsvWithoutHeader() throws Exception {
+    // When & Then
+    mockMvc.perform(post("/api/session/import")
+            .contentType("text/csv")
+            .content("Morning flow,2030-02-01\n"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateSessionWithUnknownUsers() throws Exception {
+    // Given
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Ghost Session");
+    sessionDto.setDescription("Unknown participants");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setUsers(Arrays.asList(testUser.getId(), 999998L, 999999L));
+
+    // When & Then
+    mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: Unknown user id(s): 999998, 999999"));
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateSessionWithUnknownTeacher() throws Exception {
+    // Given
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Ghost Session");
+    sessionDto.setDescription("Unknown teacher");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(999999L);
+
+    // When & Then
+    mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: Unknown teacher id: 999999"));
+  }
+
+  @Test
+  @WithMockUser
+  void testCreateSessionOverCapacity() throws Exception {
+    // Given
+    User otherUser = userRepository.save(new User("overbooked@test.com", "Over", "Booked", "password", false));
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Tiny Session");
+    sessionDto.setDescription("One seat");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setCapacity(1);
+    sessionDto.setUsers(Arrays.asList(testUser.getId(), otherUser.getId()));
+
+    // When & Then
+    mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: 2 participants exceed the capacity of 1"));
+  }
+
+  @Test
+  @WithMockUser
+  void testUpdateSessionCannotLowerCapacityBelowParticipants() throws Exception {
+    // Given
+    User otherUser = userRepository.save(new User("shrunk@test.com", "Shrunk", "Session", "password", false));
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Shrinking Session");
+    sessionDto.setDescription("Two seats");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+    sessionDto.setCapacity(2);
+    sessionDto.setUsers(Arrays.asList(testUser.getId(), otherUser.getId()));
+
+    String response = mockMvc.perform(post("/api/session")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    SessionDto createdSession = objectMapper.readValue(response, SessionDto.class);
+    sessionDto.setCapacity(1);
+
+    // When & Then
+    mockMvc.perform(put("/api/session/" + createdSession.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: 2 participants exceed the capacity of 1"));
+  }
+
+  @Test
+  @WithMockUser
+  void testUpdateUnknownSession() throws Exception {
+    // Given
+    SessionDto sessionDto = new SessionDto();
+    sessionDto.setName("Missing Session");
+    sessionDto.setDescription("Does not exist");
+    sessionDto.setDate(new Date());
+    sessionDto.setTeacher_id(testTeacher.getId());
+
+    // When & Then
+    mockMvc.perform(put("/api/session/999999")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(sessionDto)))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,45 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.openclassrooms.starterjwt.support.AdminUser.admin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatsControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void testPasswordHashingStats() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/stats/password-hashing").with(admin()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.queueCapacity").value(64))
+        .andExpect(jsonPath("$.rejectedCount").isNumber())
+        .andExpect(jsonPath("$.averageHashMs").isNumber());
+  }
+
+  @Test
+  @WithMockUser
+  void testPasswordHashingStatsRequireAdmin() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/stats/password-hashing"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void testPasswordHashingStatsRequiresAuthentication() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/stats/password-hashing"))
+        .andExpect(status().isUnauthorized());
+  }
+}
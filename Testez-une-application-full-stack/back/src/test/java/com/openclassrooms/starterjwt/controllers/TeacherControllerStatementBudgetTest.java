@@ -0,0 +1,133 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.support.StatementBudget;
+import com.openclassrooms.starterjwt.support.StatementCountingConfiguration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCountingConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TeacherControllerStatementBudgetTest {
+
+  private static final int TEACHER_COUNT = 50;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  private List<Teacher> teachers;
+
+  @BeforeAll
+  void seed() {
+    teachers = new ArrayList<>();
+    for (int i = 0; i < TEACHER_COUNT; i++) {
+      teachers.add(new Teacher().setFirstName("Budget" + i).setLastName("Teacher"));
+    }
+    teachers = teacherRepository.saveAll(teachers);
+  }
+
+  @AfterAll
+  void cleanUp() {
+    teacherRepository.deleteAll(teachers);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindById() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/teacher/" + teachers.get(0).getId()))
+        .andExpect(status().isOk());
+
+    // Then
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindAll() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/teacher"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(TEACHER_COUNT)));
+
+    // Then
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindByIdServedFromSecondLevelCache() throws Exception {
+    // Given
+    mockMvc.perform(get("/api/teacher/" + teachers.get(1).getId()))
+        .andExpect(status().isOk());
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/teacher/" + teachers.get(1).getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.firstName").value("Budget1"));
+
+    // Then
+    StatementBudget.assertAtMost(0, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindAllServedFromQueryCache() throws Exception {
+    // Given
+    mockMvc.perform(get("/api/teacher"))
+        .andExpect(status().isOk());
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/teacher"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(TEACHER_COUNT)));
+
+    // Then
+    StatementBudget.assertAtMost(0, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindAllSeesNewTeacherAfterWrite() throws Exception {
+    // Given
+    mockMvc.perform(get("/api/teacher"))
+        .andExpect(status().isOk());
+    Teacher added = teacherRepository.save(new Teacher().setFirstName("Cached").setLastName("Teacher"));
+
+    // When & Then
+    mockMvc.perform(get("/api/teacher"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[?(@.id == " + added.getId() + ")].firstName").value("Cached"));
+
+    teacherRepository.delete(added);
+  }
+}
@@ -58,6 +58,23 @@ class TeacherControllerTest {
         .andExpect(jsonPath("$").isArray());
   }
 
+  @Test
+  @WithMockUser
+  void testFindAllTeachersNotModified() throws Exception {
+    // Given
+    String etag = mockMvc.perform(get("/api/teacher"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    // When & Then
+    mockMvc.perform(get("/api/teacher").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+
+    mockMvc.perform(get("/api/teacher/" + testTeacher.getId()).header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+  }
+
   @Test
   @WithMockUser
   void testFindTeacherByIdNotFound() throws Exception {
@@ -0,0 +1,71 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.support.StatementBudget;
+import com.openclassrooms.starterjwt.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCountingConfiguration.class)
+class UserControllerStatementBudgetTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("budget-user@test.com", "Budget", "User", "password", false));
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.findById(user.getId()).ifPresent(userRepository::delete);
+  }
+
+  @Test
+  @WithMockUser
+  void testFindById() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/user/" + user.getId()))
+        .andExpect(status().isOk());
+
+    // Then
+    StatementBudget.assertAtMost(1, 0, 0, 0);
+  }
+
+  @Test
+  @WithMockUser(username = "budget-user@test.com")
+  void testDelete() throws Exception {
+    // Given
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(delete("/api/user/" + user.getId()))
+        .andExpect(status().isOk());
+
+    // Then
+    StatementBudget.assertAtMost(2, 0, 0, 1);
+  }
+}
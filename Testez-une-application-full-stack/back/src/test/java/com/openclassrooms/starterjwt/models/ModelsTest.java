@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,6 +93,19 @@ class ModelsTest {
     assertTrue(result.contains("User"));
   }
 
+  @Test
+  void testUserToStringOmitsPassword() {
+    // Given
+    User user = new User().setId(1L).setEmail("test@test.com").setPassword("$2a$10$hash");
+
+    // When
+    String result = user.toString();
+
+    // Then
+    assertTrue(result.contains("test@test.com"));
+    assertFalse(result.contains("$2a$10$hash"));
+  }
+
   @Test
   void testTeacherGettersAndSetters() {
     // Given
@@ -197,6 +211,22 @@ class ModelsTest {
     assertEquals(date, session.getDate());
   }
 
+  @Test
+  void testSessionToStringOmitsCollections() {
+    // Given
+    List<User> users = new ArrayList<>();
+    users.add(new User().setId(7L).setEmail("participant@test.com"));
+    Session session = new Session().setId(1L).setName("Yoga").setDescription("Long description").setUsers(users);
+
+    // When
+    String result = session.toString();
+
+    // Then
+    assertTrue(result.contains("Yoga"));
+    assertFalse(result.contains("participant@test.com"));
+    assertFalse(result.contains("Long description"));
+  }
+
   @Test
   void testBuilderToString() {
     // Given & When
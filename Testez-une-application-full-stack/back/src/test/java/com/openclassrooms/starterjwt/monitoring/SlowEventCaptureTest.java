@@ -0,0 +1,69 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static com.openclassrooms.starterjwt.support.AdminUser.admin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Zero thresholds make every request and statement slow, so each one is captured
+@SpringBootTest(properties = {
+    "oc.app.slowEvents.requestThresholdMs=0",
+    "oc.app.slowEvents.statementThresholdMs=0"
+})
+@AutoConfigureMockMvc
+class SlowEventCaptureTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  void testCapturesRequestAndStatementForAdmin() throws Exception {
+    // Given
+    User user = userRepository.save(new User()
+        .setEmail("slow-events@test.com")
+        .setFirstName("Slow")
+        .setLastName("User")
+        .setPassword("password"));
+
+    // When
+    mockMvc.perform(get("/api/user/" + user.getId()).with(admin()))
+        .andExpect(status().isOk());
+
+    // Then
+    mockMvc.perform(get("/api/stats/slow-events").with(admin()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[?(@.type == 'REQUEST')].endpoint", hasItem("GET /api/user/{id}")))
+        .andExpect(jsonPath("$[?(@.type == 'REQUEST' && @.endpoint == 'GET /api/user/{id}')].statements", hasItem(1)))
+        .andExpect(jsonPath("$[?(@.type == 'REQUEST' && @.endpoint == 'GET /api/user/{id}')].rowsRead", hasItem(1)))
+        .andExpect(jsonPath("$[?(@.type == 'STATEMENT' && @.endpoint == 'GET /api/user/" + user.getId() + "')].sql",
+            hasItem(containsStringIgnoringCase("from USERS"))))
+        .andExpect(jsonPath("$[?(@.type == 'STATEMENT' && @.endpoint == 'GET /api/user/" + user.getId() + "')].parameters[0][0]",
+            hasItem(String.valueOf(user.getId()))))
+        .andExpect(content().string(not(containsString("slow-events@test.com"))));
+
+    userRepository.delete(user);
+  }
+
+  @Test
+  @WithMockUser
+  void testSlowEventsRequireAdmin() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/stats/slow-events"))
+        .andExpect(status().isForbidden());
+  }
+}
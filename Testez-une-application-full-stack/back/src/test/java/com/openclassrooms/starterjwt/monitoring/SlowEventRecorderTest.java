@@ -0,0 +1,65 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowEventRecorderTest {
+
+  @Test
+  void testThresholds() {
+    // Given
+    SlowEventRecorder recorder = new SlowEventRecorder(500, 100, 1.0, 8, false);
+
+    // When & Then
+    assertFalse(recorder.isSlowRequest(TimeUnit.MILLISECONDS.toNanos(499)));
+    assertTrue(recorder.isSlowRequest(TimeUnit.MILLISECONDS.toNanos(500)));
+    assertFalse(recorder.isSlowStatement(TimeUnit.MILLISECONDS.toNanos(99)));
+    assertTrue(recorder.isSlowStatement(TimeUnit.MILLISECONDS.toNanos(100)));
+  }
+
+  @Test
+  void testRingKeepsMostRecentFirst() {
+    // Given
+    SlowEventRecorder recorder = new SlowEventRecorder(500, 100, 1.0, 3, false);
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      recorder.record(statement("select " + i));
+    }
+    List<SlowEvent> events = recorder.recent();
+
+    // Then
+    assertEquals(3, events.size());
+    assertEquals("select 4", events.get(0).getSql());
+    assertEquals("select 3", events.get(1).getSql());
+    assertEquals("select 2", events.get(2).getSql());
+  }
+
+  @Test
+  void testUnsampledEventsAreCountedButNotCaptured() {
+    // Given
+    SlowEventRecorder recorder = new SlowEventRecorder(500, 100, 0.0, 8, false);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    recorder.bindTo(registry);
+
+    // When
+    boolean captured = recorder.record(statement("select 1"));
+
+    // Then
+    assertFalse(captured);
+    assertTrue(recorder.recent().isEmpty());
+    assertEquals(1.0, registry.get("slow.events").tag("type", "statement").functionCounter().count());
+    assertEquals(0.0, registry.get("slow.events").tag("type", "request").functionCounter().count());
+  }
+
+  private static SlowEvent statement(String sql) {
+    return SlowEvent.statement("GET /api/test", TimeUnit.MILLISECONDS.toNanos(150), sql,
+        Collections.emptyList(), null);
+  }
+}
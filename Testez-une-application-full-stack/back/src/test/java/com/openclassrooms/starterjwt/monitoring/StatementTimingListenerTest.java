@@ -0,0 +1,70 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementTimingListenerTest {
+
+  @Test
+  void testStringParametersAreRedactedByDefault() throws Exception {
+    // Given
+    QueryInfo query = query("select * from SESSIONS where name = ? and id = ?",
+        setString(1, "Morning flow"), setLong(2, 7L));
+
+    // When
+    List<List<String>> parameters = StatementTimingListener.parameters(Collections.singletonList(query), false);
+
+    // Then
+    assertEquals(Collections.singletonList(Arrays.asList("String(12)", "7")), parameters);
+  }
+
+  @Test
+  void testStringParametersAreCapturedWhenEnabled() throws Exception {
+    // Given
+    QueryInfo query = query("select * from SESSIONS where name = ? and id = ?",
+        setString(1, "Morning flow"), setLong(2, 7L));
+
+    // When
+    List<List<String>> parameters = StatementTimingListener.parameters(Collections.singletonList(query), true);
+
+    // Then
+    assertEquals(Collections.singletonList(Arrays.asList("Morning flow", "7")), parameters);
+  }
+
+  @Test
+  void testPasswordStatementsAreAlwaysRedacted() throws Exception {
+    // Given
+    QueryInfo query = query("insert into USERS (email, password, id) values (?, ?, ?)",
+        setString(1, "yoga@studio.com"), setString(2, "$2a$10$hash"), setLong(3, 1L));
+
+    // When
+    List<List<String>> parameters = StatementTimingListener.parameters(Collections.singletonList(query), true);
+
+    // Then
+    assertEquals(Collections.singletonList(Arrays.asList("String(15)", "String(11)", "1")), parameters);
+  }
+
+  private static QueryInfo query(String sql, ParameterSetOperation... operations) {
+    QueryInfo query = new QueryInfo(sql);
+    query.getParametersList().add(Arrays.asList(operations));
+    return query;
+  }
+
+  private static ParameterSetOperation setString(int index, String value) throws NoSuchMethodException {
+    return new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+        new Object[] {index, value});
+  }
+
+  private static ParameterSetOperation setLong(int index, long value) throws NoSuchMethodException {
+    return new ParameterSetOperation(PreparedStatement.class.getMethod("setLong", int.class, long.class),
+        new Object[] {index, value});
+  }
+}
@@ -0,0 +1,68 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SessionRepositoryTest {
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Session testSession;
+  private User testUser;
+
+  @BeforeEach
+  void setUp() {
+    Teacher teacher = teacherRepository.save(new Teacher().setFirstName("Repo").setLastName("Teacher"));
+    testUser = userRepository.save(new User("repository@test.com", "Repo", "User", "password", false));
+    testSession = sessionRepository.save(Session.builder()
+        .name("Repository Session")
+        .description("Join table")
+        .date(new Date())
+        .teacher(teacher)
+        .users(new ArrayList<>())
+        .build());
+  }
+
+  @Test
+  void testAddAndRemoveParticipant() {
+    // When
+    int inserted = sessionRepository.addParticipant(testSession.getId(), testUser.getId());
+
+    // Then
+    assertEquals(1, inserted);
+    assertEquals(1, sessionRepository.countParticipation(testSession.getId(), testUser.getId()));
+    assertEquals(1, sessionRepository.removeParticipant(testSession.getId(), testUser.getId()));
+    assertEquals(0, sessionRepository.countParticipation(testSession.getId(), testUser.getId()));
+  }
+
+  @Test
+  void testParticipatePrimaryKeyRejectsDuplicates() {
+    // Given
+    sessionRepository.addParticipant(testSession.getId(), testUser.getId());
+
+    // When & Then
+    assertThrows(DataIntegrityViolationException.class,
+        () -> sessionRepository.addParticipant(testSession.getId(), testUser.getId()));
+  }
+}
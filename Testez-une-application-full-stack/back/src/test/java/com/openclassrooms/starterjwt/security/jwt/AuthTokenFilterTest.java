@@ -0,0 +1,105 @@
+package com.openclassrooms.starterjwt.security.jwt;
+
+import com.jayway.jsonpath.JsonPath;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.support.StatementBudget;
+import com.openclassrooms.starterjwt.support.StatementCountingConfiguration;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCountingConfiguration.class)
+@Transactional
+class AuthTokenFilterTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Value("${oc.app.jwtSecret}")
+  private String jwtSecret;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(new User("filter@test.com", "Filter", "User", passwordEncoder.encode("password123"), false));
+  }
+
+  @Test
+  void testAuthenticatedRequestDoesNotLoadTheUser() throws Exception {
+    // Given
+    String token = login();
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/teacher/999999").header("Authorization", "Bearer " + token))
+        .andExpect(status().isNotFound());
+
+    // Then (only the teacher lookup reaches the database)
+    StatementBudget.assertExactly(1, 0, 0, 0);
+  }
+
+  @Test
+  void testLegacyTokenFallsBackToTheDatabase() throws Exception {
+    // Given (token without the user claims)
+    String token = Jwts.builder()
+        .setSubject(user.getEmail())
+        .setExpiration(new Date(System.currentTimeMillis() + 60000))
+        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .compact();
+    StatementBudget.reset();
+
+    // When
+    mockMvc.perform(get("/api/teacher/999999").header("Authorization", "Bearer " + token))
+        .andExpect(status().isNotFound());
+
+    // Then (user lookup plus the teacher lookup)
+    StatementBudget.assertExactly(2, 0, 0, 0);
+  }
+
+  @Test
+  void testDeletedUserTokenIsRejected() throws Exception {
+    // Given
+    String token = login();
+    mockMvc.perform(delete("/api/user/" + user.getId()).header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+
+    // When & Then
+    mockMvc.perform(get("/api/teacher/999999").header("Authorization", "Bearer " + token))
+        .andExpect(status().isUnauthorized());
+  }
+
+  private String login() throws Exception {
+    String response = mockMvc.perform(post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"filter@test.com\",\"password\":\"password123\"}"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return JsonPath.read(response, "$.token");
+  }
+}
@@ -1,6 +1,7 @@
 package com.openclassrooms.starterjwt.security.jwt;
 
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +10,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +26,7 @@ class JwtUtilsTest {
     jwtUtils = new JwtUtils();
     ReflectionTestUtils.setField(jwtUtils, "jwtSecret", jwtSecret);
     ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", jwtExpirationMs);
+    jwtUtils.init();
   }
 
   @Test
@@ -128,4 +131,94 @@ class JwtUtilsTest {
     // Then
     assertFalse(isValid);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testVerifiedTokenIsServedFromCache() {
+    // Given
+    String token = Jwts.builder()
+        .setSubject("test@test.com")
+        .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .compact();
+
+    // When
+    Claims first = jwtUtils.getClaimsFromJwtToken(token);
+    Claims second = jwtUtils.getClaimsFromJwtToken(token);
+
+    // Then
+    assertEquals("test@test.com", first.getSubject());
+    assertSame(first, second);
+    assertEquals(1, jwtUtils.verifiedTokens().stats().hitCount());
+  }
+
+  @Test
+  void testCachedTokenExpiresWithItsExpClaim() {
+    // Given
+    String token = Jwts.builder()
+        .setSubject("test@test.com")
+        .setExpiration(new Date(System.currentTimeMillis() + 2000))
+        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .compact();
+
+    // When
+    jwtUtils.getClaimsFromJwtToken(token);
+
+    // Then
+    long expiresAfterMs = jwtUtils.verifiedTokens().policy().expireVariably().get()
+        .getExpiresAfter(token, TimeUnit.MILLISECONDS).getAsLong();
+    assertTrue(expiresAfterMs <= 2000);
+  }
+
+  @Test
+  void testInvalidTokenIsNotCached() {
+    // When
+    Claims claims = jwtUtils.getClaimsFromJwtToken("invalid.token.here");
+
+    // Then
+    assertNull(claims);
+    assertEquals(0, jwtUtils.verifiedTokens().estimatedSize());
+  }
+
+  @Test
+  void testUserDetailsFromGeneratedTokenClaims() {
+    // Given
+    UserDetailsImpl userDetails = UserDetailsImpl.builder()
+        .id(42L)
+        .username("test@test.com")
+        .firstName("John")
+        .lastName("Doe")
+        .admin(true)
+        .password("password")
+        .build();
+    Authentication authentication = mock(Authentication.class);
+    when(authentication.getPrincipal()).thenReturn(userDetails);
+    String token = jwtUtils.generateJwtToken(authentication);
+
+    // When
+    UserDetailsImpl result = jwtUtils.getUserDetailsFromClaims(jwtUtils.getClaimsFromJwtToken(token));
+
+    // Then
+    assertEquals(42L, result.getId());
+    assertEquals("test@test.com", result.getUsername());
+    assertEquals("John", result.getFirstName());
+    assertEquals("Doe", result.getLastName());
+    assertTrue(result.getAdmin());
+    assertNull(result.getPassword());
+  }
+
+  @Test
+  void testUserDetailsFromLegacyTokenClaims() {
+    // Given (token issued before the user claims were added)
+    String token = Jwts.builder()
+        .setSubject("test@test.com")
+        .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .compact();
+
+    // When
+    UserDetailsImpl result = jwtUtils.getUserDetailsFromClaims(jwtUtils.getClaimsFromJwtToken(token));
+
+    // Then
+    assertNull(result);
+  }
+}
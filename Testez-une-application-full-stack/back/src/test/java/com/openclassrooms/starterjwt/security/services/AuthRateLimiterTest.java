@@ -0,0 +1,60 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+  private AtomicLong now;
+  private AuthRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    // 4 requests per IP, 2 per email, both refilling one token every 30 seconds
+    rateLimiter = new AuthRateLimiter(4, 2, 2, 2, 1000, now::get);
+  }
+
+  @Test
+  void testEmailBucketEmptiesThenRefills() {
+    // Given
+    assertEquals(0, rateLimiter.acquire("10.0.0.1", "user@test.com"));
+    assertEquals(0, rateLimiter.acquire("10.0.0.1", "USER@test.com "));
+
+    // When & Then
+    assertEquals(30, rateLimiter.acquire("10.0.0.1", "user@test.com"));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    assertEquals(0, rateLimiter.acquire("10.0.0.1", "user@test.com"));
+  }
+
+  @Test
+  void testIpBucketCoversManyEmails() {
+    // Given
+    for (int i = 0; i < 4; i++) {
+      assertEquals(0, rateLimiter.acquire("10.0.0.2", "user" + i + "@test.com"));
+    }
+
+    // When & Then
+    assertEquals(30, rateLimiter.acquire("10.0.0.2", "other@test.com"));
+    assertEquals(0, rateLimiter.acquire("10.0.0.3", "other@test.com"));
+  }
+
+  @Test
+  void testRetryAfterRoundsUp() {
+    // Given
+    rateLimiter.acquire("10.0.0.4", "round@test.com");
+    rateLimiter.acquire("10.0.0.4", "round@test.com");
+
+    // When
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(29500));
+
+    // Then
+    assertEquals(1, rateLimiter.acquire("10.0.0.4", "round@test.com"));
+  }
+}
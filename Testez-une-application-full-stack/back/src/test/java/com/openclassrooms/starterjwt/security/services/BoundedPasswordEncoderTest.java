@@ -0,0 +1,99 @@
+package com.openclassrooms.starterjwt.security.services;
+
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
+import com.openclassrooms.starterjwt.payload.response.PasswordHashingStatsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+  private BoundedPasswordEncoder encoder;
+
+  @AfterEach
+  void tearDown() {
+    encoder.shutdown();
+  }
+
+  @Test
+  void testEncodeAndMatchOnThePool() {
+    // Given
+    encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5000);
+
+    // When
+    String hash = encoder.encode("password123");
+
+    // Then
+    assertTrue(encoder.matches("password123", hash));
+    assertFalse(encoder.matches("wrong", hash));
+    PasswordHashingStatsResponse stats = encoder.stats();
+    assertEquals(3, stats.getCompletedCount());
+    assertEquals(0, stats.getRejectedCount());
+    assertEquals(4, stats.getQueueCapacity());
+  }
+
+  @Test
+  void testFullQueueFailsFast() throws Exception {
+    // Given (one busy worker and one queued task)
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking = mock(PasswordEncoder.class);
+    when(blocking.matches(any(), any())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+    encoder = new BoundedPasswordEncoder(blocking, 1, 1, 5000);
+
+    CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+    waitUntil(() -> encoder.stats().getActiveCount() == 1);
+    CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+    waitUntil(() -> encoder.stats().getQueueDepth() == 1);
+
+    // When & Then
+    assertThrows(ServiceUnavailableException.class, () -> encoder.matches("c", "hash"));
+    assertEquals(1, encoder.stats().getRejectedCount());
+
+    release.countDown();
+    assertTrue(running.get(5, TimeUnit.SECONDS));
+    assertTrue(queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testSlowHashTimesOut() {
+    // Given
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking = mock(PasswordEncoder.class);
+    when(blocking.encode(any())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return "hash";
+    });
+    encoder = new BoundedPasswordEncoder(blocking, 1, 1, 50);
+
+    // When & Then
+    assertThrows(ServiceUnavailableException.class, () -> encoder.encode("password123"));
+    release.countDown();
+  }
+
+  @Test
+  void testUpgradeEncodingIsDelegated() {
+    // Given
+    encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, 5000);
+
+    // When & Then
+    assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+    assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password123")));
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "Condition not reached in time");
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.openclassrooms.starterjwt.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataVersionServiceTest {
+
+  @Test
+  void testIncrementChangesOnlyThatResource() {
+    // Given
+    DataVersionService dataVersionService = new DataVersionService();
+    String sessionEtag = dataVersionService.etag(DataVersionService.Resource.SESSION);
+    String teacherEtag = dataVersionService.etag(DataVersionService.Resource.TEACHER);
+
+    // When
+    dataVersionService.increment(DataVersionService.Resource.SESSION);
+
+    // Then
+    assertEquals(1, dataVersionService.current(DataVersionService.Resource.SESSION));
+    assertNotEquals(sessionEtag, dataVersionService.etag(DataVersionService.Resource.SESSION));
+    assertEquals(teacherEtag, dataVersionService.etag(DataVersionService.Resource.TEACHER));
+    assertTrue(sessionEtag.startsWith("\"session-"));
+  }
+}
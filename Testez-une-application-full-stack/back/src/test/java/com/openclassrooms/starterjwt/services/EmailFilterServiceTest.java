@@ -0,0 +1,77 @@
+package com.openclassrooms.starterjwt.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EmailFilterServiceTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  private EmailFilterService emailFilterService;
+
+  @BeforeEach
+  void setUp() {
+    emailFilterService = new EmailFilterService(userRepository, 10000, 0.01);
+  }
+
+  @Test
+  void testEverythingMightBePresentBeforeRebuild() {
+    // When & Then
+    assertTrue(emailFilterService.mightContain("anyone@test.com"));
+  }
+
+  @Test
+  void testRebuildLoadsExistingEmails() {
+    // Given
+    when(userRepository.streamAllEmails()).thenReturn(Stream.of("yoga@studio.com", "john@test.com"));
+
+    // When
+    emailFilterService.rebuild();
+
+    // Then
+    assertTrue(emailFilterService.mightContain("yoga@studio.com"));
+    assertTrue(emailFilterService.mightContain("John@Test.com "));
+    assertFalse(emailFilterService.mightContain("nobody@test.com"));
+  }
+
+  @Test
+  void testAddedEmailIsRemembered() {
+    // Given
+    when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+    emailFilterService.rebuild();
+
+    // When
+    emailFilterService.add("new@test.com");
+
+    // Then
+    assertTrue(emailFilterService.mightContain("new@test.com"));
+  }
+
+  @Test
+  void testFalsePositiveRateStaysNearTarget() {
+    // Given
+    when(userRepository.streamAllEmails())
+        .thenReturn(IntStream.range(0, 10000).mapToObj(i -> "user" + i + "@test.com"));
+    emailFilterService.rebuild();
+
+    // When
+    long falsePositives = IntStream.range(0, 10000)
+        .filter(i -> emailFilterService.mightContain("other" + i + "@test.com"))
+        .count();
+
+    // Then
+    assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+  }
+}
@@ -0,0 +1,108 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.payload.response.CacheStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCacheServiceTest {
+
+  private DataVersionService dataVersionService;
+  private SessionCacheService sessionCacheService;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    dataVersionService = new DataVersionService();
+    sessionCacheService = new SessionCacheService(dataVersionService, 10, 60);
+    loads = new AtomicInteger();
+  }
+
+  private SessionDto load(Long id) {
+    loads.incrementAndGet();
+    SessionDto dto = new SessionDto();
+    dto.setId(id);
+    return dto;
+  }
+
+  @Test
+  void testGetByIdLoadsOnceThenHits() {
+    // When
+    sessionCacheService.getById(1L, this::load);
+    SessionDto result = sessionCacheService.getById(1L, this::load);
+
+    // Then
+    assertEquals(1L, result.getId());
+    assertEquals(1, loads.get());
+    CacheStatsResponse stats = sessionCacheService.stats().get("sessions");
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+  }
+
+  @Test
+  void testGetByIdDoesNotCacheMissingSession() {
+    // When
+    sessionCacheService.getById(1L, id -> null);
+    SessionDto result = sessionCacheService.getById(1L, this::load);
+
+    // Then
+    assertNotNull(result);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void testEvictInvalidatesSessionAndList() {
+    // Given
+    sessionCacheService.getById(1L, this::load);
+    sessionCacheService.getById(2L, this::load);
+    sessionCacheService.getAll(() -> Collections.singletonList(load(1L)));
+
+    // When
+    sessionCacheService.evict(1L);
+    sessionCacheService.getById(1L, this::load);
+    sessionCacheService.getById(2L, this::load);
+    List<SessionDto> all = sessionCacheService.getAll(() -> Collections.singletonList(load(1L)));
+
+    // Then (session 1 and the list reloaded, session 2 still cached)
+    assertEquals(1, all.size());
+    assertEquals(5, loads.get());
+  }
+
+  @Test
+  void testEvictListKeepsSessions() {
+    // Given
+    sessionCacheService.getById(1L, this::load);
+    sessionCacheService.getAll(Collections::emptyList);
+
+    // When
+    sessionCacheService.evictList();
+    sessionCacheService.getById(1L, this::load);
+
+    // Then
+    assertEquals(1, loads.get());
+    assertEquals(1, sessionCacheService.stats().get("sessionLists").getMissCount());
+  }
+
+  @Test
+  void testListLoadedAcrossAWriteIsNotServedAfterIt() {
+    // Given - a write commits and bumps the version while the list is being loaded
+    List<SessionDto> stale = sessionCacheService.getAll(() -> {
+      List<SessionDto> loaded = Collections.singletonList(load(1L));
+      dataVersionService.increment(DataVersionService.Resource.SESSION);
+      return loaded;
+    });
+
+    // When
+    List<SessionDto> all = sessionCacheService.getAll(Collections::emptyList);
+
+    // Then
+    assertEquals(1, stale.size());
+    assertTrue(all.isEmpty());
+  }
+}
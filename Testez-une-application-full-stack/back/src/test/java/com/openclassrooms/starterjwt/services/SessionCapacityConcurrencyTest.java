@@ -0,0 +1,138 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SessionCapacityConcurrencyTest {
+
+  private static final int CAPACITY = 5;
+  private static final int CONTENDERS = 30;
+
+  @Autowired
+  private SessionService sessionService;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Autowired
+  private TeacherRepository teacherRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Teacher teacher;
+  private Session session;
+  private List<User> users;
+
+  @BeforeEach
+  void setUp() {
+    teacher = teacherRepository.save(new Teacher().setFirstName("Capacity").setLastName("Teacher"));
+
+    users = new ArrayList<>();
+    for (int i = 0; i < CONTENDERS; i++) {
+      users.add(userRepository.save(new User("seat" + i + "@test.com", "Seat", "User", "password", false)));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (session != null) {
+      sessionRepository.deleteById(session.getId());
+    }
+    userRepository.deleteAll(users);
+    teacherRepository.delete(teacher);
+  }
+
+  @Test
+  void testConcurrentParticipationNeverOverbooks() throws Exception {
+    // Given
+    session = createSession(CAPACITY);
+
+    // When
+    int enrolled = participateConcurrently();
+
+    // Then
+    assertEquals(CAPACITY, enrolled);
+    assertEquals(CAPACITY, sessionRepository.findById(session.getId()).get().getUsers().size());
+  }
+
+  @Test
+  void testConcurrentParticipationSeatsEveryoneWhenRoomRemains() throws Exception {
+    // Given
+    session = createSession(CONTENDERS);
+
+    // When
+    int enrolled = participateConcurrently();
+
+    // Then
+    Session reloaded = sessionRepository.findById(session.getId()).get();
+    assertEquals(CONTENDERS, enrolled);
+    assertEquals(CONTENDERS, reloaded.getUsers().size());
+    assertEquals(CONTENDERS, reloaded.getSeatsTaken());
+  }
+
+  private Session createSession(int capacity) {
+    return sessionRepository.save(Session.builder()
+        .name("Capacity Session")
+        .description("Limited seats")
+        .date(new Date())
+        .teacher(teacher)
+        .capacity(capacity)
+        .users(new ArrayList<>())
+        .build());
+  }
+
+  /**
+   * Starts every contender at once and returns how many got a seat. Only a full session
+   * counts as a refusal; any other failure fails the test.
+   */
+  private int participateConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (User user : users) {
+      results.add(executor.submit(() -> {
+        start.await();
+        try {
+          sessionService.participate(session.getId(), user.getId());
+          return true;
+        } catch (ConflictException e) {
+          return false;
+        }
+      }));
+    }
+
+    start.countDown();
+    int enrolled = 0;
+    for (Future<Boolean> result : results) {
+      if (result.get(30, TimeUnit.SECONDS)) {
+        enrolled++;
+      }
+    }
+    executor.shutdown();
+
+    return enrolled;
+  }
+}
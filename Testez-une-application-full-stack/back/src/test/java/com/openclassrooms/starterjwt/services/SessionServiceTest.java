@@ -1,10 +1,16 @@
 package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.exception.ServiceUnavailableException;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.response.ParticipationResult;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeats;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,12 +18,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +44,18 @@ class SessionServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private TeacherRepository teacherRepository;
+
+  @Mock
+  private SessionCacheService sessionCacheService;
+
+  @Mock
+  private DataVersionService dataVersionService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
   @InjectMocks
   private SessionService sessionService;
 
@@ -48,57 +75,201 @@ class SessionServiceTest {
   @Test
   void testCreate() {
     // Given
-    when(sessionRepository.save(any(Session.class))).thenReturn(testSession);
+    when(sessionRepository.saveAndFlush(any(Session.class))).thenReturn(testSession);
 
     // When
     Session result = sessionService.create(testSession);
 
     // Then
     assertNotNull(result);
-    verify(sessionRepository, times(1)).save(testSession);
+    verify(sessionRepository, times(1)).saveAndFlush(testSession);
+    verify(sessionCacheService, times(1)).evictList();
+    verify(dataVersionService, times(1)).increment(DataVersionService.Resource.SESSION);
+  }
+
+  @Test
+  void testCreateWithUnknownTeacher() {
+    // Given
+    testSession.setTeacher(new Teacher().setId(999L));
+    when(teacherRepository.findById(999L)).thenReturn(Optional.empty());
+
+    // When
+    BadRequestException e = assertThrows(BadRequestException.class, () -> sessionService.create(testSession));
+
+    // Then
+    assertEquals("Error: Unknown teacher id: 999", e.getMessage());
+    verify(sessionRepository, never()).saveAndFlush(any(Session.class));
+  }
+
+  @Test
+  void testCreateRethrowsOtherConstraintViolations() {
+    // Given
+    testSession.setTeacher(new Teacher().setId(1L));
+    when(teacherRepository.findById(1L)).thenReturn(Optional.of(new Teacher().setId(1L)));
+    DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement");
+    when(sessionRepository.saveAndFlush(any(Session.class))).thenThrow(violation);
+
+    // When
+    DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+        () -> sessionService.create(testSession));
+
+    // Then
+    assertSame(violation, e);
+    verify(sessionCacheService, never()).evictList();
   }
 
   @Test
   void testParticipateSuccess() {
     // Given
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(testSession));
-    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(0L);
+    when(sessionRepository.claimSeats(1L, 1)).thenReturn(1);
 
     // When
     sessionService.participate(1L, 1L);
 
     // Then
-    verify(sessionRepository, times(1)).save(testSession);
+    verify(sessionRepository, times(1)).addParticipant(1L, 1L);
+    verify(sessionRepository, never()).save(any(Session.class));
+    verify(sessionCacheService, times(1)).evict(1L);
   }
 
   @Test
   void testParticipateAlreadyParticipating() {
     // Given
-    testSession.getUsers().add(testUser);
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(testSession));
-    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(1L);
 
     // When & Then
     assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, never()).claimSeats(anyLong(), anyInt());
+    verify(sessionRepository, never()).addParticipant(anyLong(), anyLong());
+  }
+
+  @Test
+  void testParticipateConcurrentDuplicate() {
+    // Given
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(0L);
+    when(sessionRepository.claimSeats(1L, 1)).thenReturn(1);
+    when(sessionRepository.addParticipant(1L, 1L)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+    // When & Then
+    assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionCacheService, never()).evict(anyLong());
+  }
+
+  @Test
+  void testParticipateWhenSessionFull() {
+    // Given
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(0L);
+    when(sessionRepository.claimSeats(1L, 1)).thenReturn(0);
+    when(sessionRepository.existsById(1L)).thenReturn(true);
+
+    // When & Then
+    assertThrows(ConflictException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, never()).addParticipant(anyLong(), anyLong());
+  }
+
+  @Test
+  void testParticipateRetriesTransientLockFailure() {
+    // Given
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(0L);
+    when(sessionRepository.claimSeats(1L, 1))
+        .thenThrow(new CannotAcquireLockException("lock timeout"))
+        .thenReturn(1);
+
+    // When
+    sessionService.participate(1L, 1L);
+
+    // Then
+    verify(sessionRepository, times(2)).claimSeats(1L, 1);
+    verify(sessionRepository, times(1)).addParticipant(1L, 1L);
+  }
+
+  @Test
+  void testParticipateReportsUnavailableAfterRepeatedLockFailures() {
+    // Given
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(0L);
+    when(sessionRepository.claimSeats(1L, 1)).thenThrow(new CannotAcquireLockException("lock timeout"));
+
+    // When & Then
+    assertThrows(ServiceUnavailableException.class, () -> sessionService.participate(1L, 1L));
+    verify(sessionRepository, times(5)).claimSeats(1L, 1);
+    verify(sessionRepository, never()).addParticipant(anyLong(), anyLong());
+  }
+
+  @Test
+  void testParticipateAllInsertsOnlyNewUsers() {
+    // Given
+    when(sessionRepository.lockSeats(1L)).thenReturn(Optional.of(seats(null, 1)));
+    when(userRepository.findExistingIds(any())).thenReturn(Arrays.asList(1L, 2L));
+    when(sessionRepository.findParticipantIds(eq(1L), any())).thenReturn(Collections.singletonList(1L));
+
+    // When
+    List<ParticipationResult> results = sessionService.participateAll(1L, Arrays.asList(1L, 2L, 3L, 2L));
+
+    // Then
+    assertEquals(3, results.size());
+    assertEquals(ParticipationResult.Status.ALREADY_ENROLLED, results.get(0).getStatus());
+    assertEquals(ParticipationResult.Status.ENROLLED, results.get(1).getStatus());
+    assertEquals(ParticipationResult.Status.USER_NOT_FOUND, results.get(2).getStatus());
+    verify(sessionRepository, times(1)).addParticipants(1L, Collections.singletonList(2L));
+    verify(sessionCacheService, times(1)).evict(1L);
+  }
+
+  @Test
+  void testParticipateAllStopsAtCapacity() {
+    // Given
+    when(sessionRepository.lockSeats(1L)).thenReturn(Optional.of(seats(2, 1)));
+    when(userRepository.findExistingIds(any())).thenReturn(Arrays.asList(1L, 2L));
+    when(sessionRepository.findParticipantIds(eq(1L), any())).thenReturn(Collections.emptyList());
+
+    // When
+    List<ParticipationResult> results = sessionService.participateAll(1L, Arrays.asList(1L, 2L));
+
+    // Then
+    assertEquals(ParticipationResult.Status.ENROLLED, results.get(0).getStatus());
+    assertEquals(ParticipationResult.Status.SESSION_FULL, results.get(1).getStatus());
+    verify(sessionRepository, times(1)).claimSeats(1L, 1);
+    verify(sessionRepository, times(1)).addParticipants(1L, Collections.singletonList(1L));
   }
 
   @Test
   void testNoLongerParticipateSuccess() {
     // Given
-    testSession.getUsers().add(testUser);
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(testSession));
+    when(sessionRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
 
     // When
     sessionService.noLongerParticipate(1L, 1L);
 
     // Then
-    verify(sessionRepository, times(1)).save(testSession);
+    verify(sessionRepository, times(1)).removeParticipant(1L, 1L);
+    verify(sessionRepository, times(1)).releaseSeat(1L);
+    verify(sessionRepository, never()).save(any(Session.class));
+    verify(sessionCacheService, times(1)).evict(1L);
   }
 
   @Test
   void testParticipateWhenSessionNotFound() {
     // Given
-    when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.countParticipation(1L, 1L)).thenReturn(0L);
+    when(sessionRepository.claimSeats(1L, 1)).thenReturn(0);
+    when(sessionRepository.existsById(1L)).thenReturn(false);
+
+    // When & Then
+    assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 1L));
+  }
+
+  @Test
+  void testParticipateWhenUserNotFound() {
+    // Given
+    when(userRepository.existsById(1L)).thenReturn(false);
 
     // When & Then
     assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 1L));
@@ -107,18 +278,34 @@ class SessionServiceTest {
   @Test
   void testNoLongerParticipateWhenNotParticipating() {
     // Given
-    when(sessionRepository.findById(1L)).thenReturn(Optional.of(testSession));
+    when(sessionRepository.existsById(1L)).thenReturn(true);
+    when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
 
     // When & Then
     assertThrows(BadRequestException.class, () -> sessionService.noLongerParticipate(1L, 1L));
+    verify(sessionRepository, never()).releaseSeat(anyLong());
   }
 
   @Test
   void testNoLongerParticipateWhenSessionNotFound() {
     // Given
-    when(sessionRepository.findById(1L)).thenReturn(Optional.empty());
+    when(sessionRepository.existsById(1L)).thenReturn(false);
 
     // When & Then
     assertThrows(NotFoundException.class, () -> sessionService.noLongerParticipate(1L, 1L));
   }
-}
\ No newline at end of file
+
+  private static SessionSeats seats(Integer capacity, Integer seatsTaken) {
+    return new SessionSeats() {
+      @Override
+      public Integer getCapacity() {
+        return capacity;
+      }
+
+      @Override
+      public Integer getSeatsTaken() {
+        return seatsTaken;
+      }
+    };
+  }
+}
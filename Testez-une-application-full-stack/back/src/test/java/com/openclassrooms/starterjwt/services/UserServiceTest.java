@@ -1,7 +1,9 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.services.TokenRevocationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,9 +11,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +26,9 @@ class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @InjectMocks
   private UserService userService;
 
@@ -46,6 +55,7 @@ class UserServiceTest {
 
     // Then
     verify(userRepository, times(1)).deleteById(userId);
+    verify(tokenRevocationService, times(1)).revokeUser(userId);
   }
 
   @Test
@@ -79,4 +89,40 @@ class UserServiceTest {
     assertNull(result);
     verify(userRepository, times(1)).findById(userId);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testFindAllByIdKeepsRequestOrderWithoutDuplicates() {
+    // Given
+    User other = new User();
+    other.setId(2L);
+    when(userRepository.findAllById(any())).thenReturn(Arrays.asList(testUser, other));
+
+    // When
+    List<User> result = userService.findAllById(Arrays.asList(2L, 1L, 2L));
+
+    // Then
+    assertEquals(Arrays.asList(other, testUser), result);
+    verify(userRepository, times(1)).findAllById(any());
+  }
+
+  @Test
+  void testFindAllByIdReportsUnknownIds() {
+    // Given
+    when(userRepository.findAllById(any())).thenReturn(Collections.singletonList(testUser));
+
+    // When & Then
+    BadRequestException exception = assertThrows(BadRequestException.class,
+        () -> userService.findAllById(Arrays.asList(1L, 5L, 7L)));
+    assertEquals("Error: Unknown user id(s): 5, 7", exception.getMessage());
+  }
+
+  @Test
+  void testFindAllByIdWithoutIds() {
+    // When
+    List<User> result = userService.findAllById(null);
+
+    // Then
+    assertTrue(result.isEmpty());
+    verifyNoInteractions(userRepository);
+  }
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.support;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * Runs a MockMvc request as an admin. Admin is a flag on the principal, which
+ * {@code @WithMockUser} cannot set.
+ */
+public final class AdminUser {
+
+  private AdminUser() {
+  }
+
+  public static RequestPostProcessor admin() {
+    return user(UserDetailsImpl.builder()
+        .id(1L)
+        .username("yoga@studio.com")
+        .firstName("Admin")
+        .lastName("Admin")
+        .admin(true)
+        .password("password")
+        .build());
+  }
+}
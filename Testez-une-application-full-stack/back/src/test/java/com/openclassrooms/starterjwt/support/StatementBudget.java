@@ -0,0 +1,67 @@
+package com.openclassrooms.starterjwt.support;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.listener.SingleQueryCountHolder;
+
+/**
+ * Upper bounds on the statements a request may issue. Call {@link #reset()} right
+ * before the request and {@link #assertAtMost} (or {@link #assertExactly}) right after
+ * it, before any cleanup.
+ */
+public final class StatementBudget {
+
+  // Shared with the proxy installed by StatementCountingConfiguration
+  static final SingleQueryCountHolder COUNTS = new SingleQueryCountHolder();
+
+  private StatementBudget() {
+  }
+
+  public static void reset() {
+    COUNTS.clear();
+  }
+
+  public static void assertAtMost(int selects, int inserts, int updates, int deletes) {
+    QueryCount count = total();
+    String actual = describe(count);
+
+    assertAll(
+        () -> assertTrue(count.getSelect() <= selects, "selects over budget " + selects + ": " + actual),
+        () -> assertTrue(count.getInsert() <= inserts, "inserts over budget " + inserts + ": " + actual),
+        () -> assertTrue(count.getUpdate() <= updates, "updates over budget " + updates + ": " + actual),
+        () -> assertTrue(count.getDelete() <= deletes, "deletes over budget " + deletes + ": " + actual),
+        () -> assertTrue(count.getOther() == 0, "unexpected statements: " + actual));
+  }
+
+  public static void assertExactly(int selects, int inserts, int updates, int deletes) {
+    QueryCount count = total();
+    String actual = describe(count);
+
+    assertAll(
+        () -> assertEquals(selects, count.getSelect(), "selects: " + actual),
+        () -> assertEquals(inserts, count.getInsert(), "inserts: " + actual),
+        () -> assertEquals(updates, count.getUpdate(), "updates: " + actual),
+        () -> assertEquals(deletes, count.getDelete(), "deletes: " + actual),
+        () -> assertEquals(0, count.getOther(), "unexpected statements: " + actual));
+  }
+
+  private static QueryCount total() {
+    QueryCount count = new QueryCount();
+    for (QueryCount perDataSource : COUNTS.getQueryCountMap().values()) {
+      count.setSelect(count.getSelect() + perDataSource.getSelect());
+      count.setInsert(count.getInsert() + perDataSource.getInsert());
+      count.setUpdate(count.getUpdate() + perDataSource.getUpdate());
+      count.setDelete(count.getDelete() + perDataSource.getDelete());
+      count.setOther(count.getOther() + perDataSource.getOther());
+    }
+    return count;
+  }
+
+  private static String describe(QueryCount count) {
+    return String.format("select=%d, insert=%d, update=%d, delete=%d, other=%d",
+        count.getSelect(), count.getInsert(), count.getUpdate(), count.getDelete(), count.getOther());
+  }
+}
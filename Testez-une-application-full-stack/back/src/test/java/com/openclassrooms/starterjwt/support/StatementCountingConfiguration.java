@@ -0,0 +1,35 @@
+package com.openclassrooms.starterjwt.support;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource so every JDBC statement, including the ones
+ * issued outside Hibernate, is counted by type. The counts are process wide rather
+ * than per thread so that async requests are included.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCountingConfiguration {
+
+  @Bean
+  static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+          return bean;
+        }
+
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+            .name(beanName)
+            .countQuery(StatementBudget.COUNTS)
+            .build();
+      }
+    };
+  }
+}
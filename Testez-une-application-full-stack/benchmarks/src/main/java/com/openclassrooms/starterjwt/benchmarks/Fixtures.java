@@ -0,0 +1,53 @@
+package com.openclassrooms.starterjwt.benchmarks;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Entities and configured beans shared by the benchmarks.
+ */
+final class Fixtures {
+
+    // Same length as a production HS512 secret
+    static final String JWT_SECRET = "c3VwZXJTZWNyZXRLZXlGb3JCZW5jaG1hcmtzT25seVN1cGVyU2VjcmV0S2V5Rm9yQmVuY2htYXJrc09ubHk=";
+
+    private Fixtures() {
+    }
+
+    static void setField(Object target, String name, Object value) {
+        ReflectionTestUtils.setField(target, name, value);
+    }
+
+    static List<Session> sessions(int count, int participants) {
+        Teacher teacher = new Teacher().setId(1L).setFirstName("Margot").setLastName("Delahaye");
+
+        List<User> users = new ArrayList<>(participants);
+        for (long i = 0; i < participants; i++) {
+            User user = new User("user" + i + "@test.com", "Last" + i, "First" + i, "password", false);
+            user.setId(i + 1);
+            users.add(user);
+        }
+
+        List<Session> sessions = new ArrayList<>(count);
+        for (long i = 0; i < count; i++) {
+            sessions.add(Session.builder()
+                    .id(i + 1)
+                    .name("Session " + i)
+                    .description("Morning flow")
+                    .date(new Date())
+                    .teacher(teacher)
+                    .users(users)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return sessions;
+    }
+}
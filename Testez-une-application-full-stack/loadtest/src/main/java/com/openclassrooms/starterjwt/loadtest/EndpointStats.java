@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one endpoint. Latency is measured from
+ * the moment the request was scheduled, not sent, so a stalled server shows up in
+ * the percentiles instead of silently lowering the request rate.
+ */
+final class EndpointStats {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    final String name;
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status == 429) {
+            throttled.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        failed.increment();
+    }
+
+    /**
+     * Drops everything recorded so far, used at the end of the warm-up.
+     */
+    synchronized void reset() {
+        recorder.getIntervalHistogram();
+        total.reset();
+        ok.reset();
+        rejected.reset();
+        throttled.reset();
+        failed.reset();
+    }
+
+    /**
+     * Moves the samples of the last interval into the totals and returns them.
+     */
+    synchronized Histogram interval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        return interval;
+    }
+
+    synchronized Histogram total() {
+        total.add(recorder.getIntervalHistogram());
+        return total;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    long throttled() {
+        return throttled.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+}
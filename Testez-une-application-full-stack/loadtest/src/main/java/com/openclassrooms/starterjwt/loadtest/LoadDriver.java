@@ -0,0 +1,287 @@
+package com.openclassrooms.starterjwt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of login, session listing, participate and unparticipate
+ * requests at a fixed arrival rate (open model) and reports throughput and latency
+ * percentiles per endpoint.
+ *
+ * <pre>
+ * java -cp target/loadtest.jar com.openclassrooms.starterjwt.loadtest.LoadDriver \
+ *   --base-url=http://localhost:8080 --rate=200 --duration=2m --warmup=20s \
+ *   --mix=login:5,list:60,participate:20,unparticipate:15
+ * </pre>
+ *
+ * Users are the ones created by {@link Seeder}. The auth endpoints are rate limited
+ * per client IP, so raise {@code oc.app.authRateLimit.*} on the backend when the
+ * login share is significant; throttled answers are counted separately.
+ */
+public class LoadDriver {
+    private static final String LOGIN = "login";
+    private static final String LIST = "list";
+    private static final String PARTICIPATE = "participate";
+    private static final String UNPARTICIPATE = "unparticipate";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String listPath;
+    private final Duration timeout;
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final List<Account> accounts = new ArrayList<>();
+    private final List<Long> sessionIds = new ArrayList<>();
+    // Enrollments made by this run, undone by the unparticipate requests
+    private final ConcurrentLinkedQueue<long[]> enrollments = new ConcurrentLinkedQueue<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private String[] weightedOps;
+
+    LoadDriver(String baseUrl, String listPath, Duration timeout) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUrl = baseUrl;
+        this.listPath = listPath;
+        this.timeout = timeout;
+        for (String op : new String[]{LOGIN, LIST, PARTICIPATE, UNPARTICIPATE}) {
+            stats.put(op, new EndpointStats(op));
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        LoadDriver driver = new LoadDriver(
+                args.get("base-url", "http://localhost:8080"),
+                args.get("list-path", "/api/session?size=20"),
+                args.getDuration("timeout", Duration.ofSeconds(10)));
+
+        driver.parseMix(args.get("mix", "login:5,list:60,participate:20,unparticipate:15"));
+        driver.prepare(args.get("email-prefix", "load"), args.getInt("accounts", 200), args.getInt("session-sample", 2000));
+        driver.run(args.getInt("rate", 100), args.getDuration("warmup", Duration.ofSeconds(10)),
+                args.getDuration("duration", Duration.ofSeconds(60)), args.getInt("max-in-flight", 1000));
+    }
+
+    void parseMix(String mix) {
+        List<String> ops = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (!stats.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Unknown operation in --mix: " + parts[0]);
+            }
+            for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+                ops.add(parts[0]);
+            }
+        }
+        weightedOps = ops.toArray(new String[0]);
+    }
+
+    /**
+     * Logs in the pool of accounts used by the run and samples session ids to enroll into.
+     */
+    void prepare(String emailPrefix, int accountCount, int sessionSample) throws IOException, InterruptedException {
+        for (int n = 0; n < accountCount; n++) {
+            String email = emailPrefix + n + Seeder.EMAIL_DOMAIN;
+            HttpResponse<String> response = client.send(login(email), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + email + " failed with HTTP " + response.statusCode()
+                        + "; seed the database first and check the auth rate limits");
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            accounts.add(new Account(email, body.get("id").asLong(), body.get("token").asText()));
+        }
+
+        String cursor = null;
+        while (sessionIds.size() < sessionSample) {
+            String path = "/api/session/summary?size=100" + (cursor != null ? "&cursor=" + cursor : "");
+            HttpResponse<String> response = client.send(authorized(path, accounts.get(0)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode page = objectMapper.readTree(response.body());
+            page.get("sessions").forEach(session -> sessionIds.add(session.get("id").asLong()));
+            if (page.get("nextCursor").isNull()) {
+                break;
+            }
+            cursor = page.get("nextCursor").asText();
+        }
+        if (sessionIds.isEmpty()) {
+            throw new IllegalStateException("No sessions found; seed the database first");
+        }
+
+        System.out.printf("Prepared %d accounts and %d sessions%n", accounts.size(), sessionIds.size());
+    }
+
+    void run(int rate, Duration warmup, Duration duration, int maxInFlight) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long nextReport = measureFrom + TimeUnit.SECONDS.toNanos(10);
+        boolean warmedUp = warmup.isZero();
+
+        System.out.printf("Running %d req/s: %d s warm-up, %d s measured%n", rate, warmup.getSeconds(), duration.getSeconds());
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (!warmedUp && scheduled >= measureFrom) {
+                stats.values().forEach(EndpointStats::reset);
+                dropped.reset();
+                warmedUp = true;
+            }
+            if (warmedUp && scheduled >= nextReport) {
+                printInterval(TimeUnit.NANOSECONDS.toSeconds(scheduled - measureFrom));
+                nextReport += TimeUnit.SECONDS.toNanos(10);
+            }
+
+            // The client cannot keep up: count it instead of queueing without bound
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+            fire(weightedOps[ThreadLocalRandom.current().nextInt(weightedOps.length)], scheduled, inFlight);
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            System.out.println("Some requests were still in flight at the end of the run");
+        }
+        printSummary(duration);
+    }
+
+    private void fire(String op, long scheduled, Semaphore inFlight) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account account = accounts.get(random.nextInt(accounts.size()));
+        HttpRequest request;
+        long[] enrollment = null;
+
+        switch (op) {
+            case LOGIN:
+                request = login(account.email);
+                break;
+            case LIST:
+                request = authorized(listPath, account).GET().build();
+                break;
+            case UNPARTICIPATE:
+                enrollment = enrollments.poll();
+                if (enrollment != null) {
+                    request = authorized("/api/session/" + enrollment[0] + "/participate/" + enrollment[1], account)
+                            .DELETE().build();
+                    break;
+                }
+                // Nothing to undo yet, enroll instead
+                op = PARTICIPATE;
+            default:
+                enrollment = new long[]{sessionIds.get(random.nextInt(sessionIds.size())), account.id};
+                request = authorized("/api/session/" + enrollment[0] + "/participate/" + enrollment[1], account)
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+
+        EndpointStats endpoint = stats.get(op);
+        boolean enrolling = PARTICIPATE.equals(op);
+        long[] pair = enrollment;
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - scheduled;
+            if (error != null) {
+                endpoint.recordFailure(latency);
+            } else {
+                endpoint.record(latency, response.statusCode());
+                if (enrolling && response.statusCode() == 200) {
+                    enrollments.add(pair);
+                }
+            }
+            inFlight.release();
+        });
+    }
+
+    private HttpRequest login(String email) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + Seeder.PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, Account account) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + account.token);
+    }
+
+    private void printInterval(long elapsedSeconds) {
+        StringBuilder line = new StringBuilder(String.format("[%4ds]", elapsedSeconds));
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram interval = endpoint.interval();
+            line.append(String.format("  %s n=%d p99=%.1fms", endpoint.name, interval.getTotalCount(),
+                    millis(interval.getValueAtPercentile(99))));
+        }
+        System.out.println(line);
+    }
+
+    private void printSummary(Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.println();
+        System.out.printf("%-14s %9s %9s %8s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "non-2xx", "429", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram total = endpoint.total();
+            System.out.printf("%-14s %9d %9.1f %8d %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint.name,
+                    total.getTotalCount(),
+                    total.getTotalCount() / seconds,
+                    endpoint.rejected(),
+                    endpoint.throttled(),
+                    endpoint.failed(),
+                    millis(total.getValueAtPercentile(50)),
+                    millis(total.getValueAtPercentile(90)),
+                    millis(total.getValueAtPercentile(99)),
+                    millis(total.getMaxValue()));
+        }
+        if (dropped.sum() > 0) {
+            System.out.printf("%d requests were not sent because the in-flight limit was reached%n", dropped.sum());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Account {
+        final String email;
+        final long id;
+        final String token;
+
+        Account(String email, long id, String token) {
+            this.email = email;
+            this.id = id;
+            this.token = token;
+        }
+    }
+}
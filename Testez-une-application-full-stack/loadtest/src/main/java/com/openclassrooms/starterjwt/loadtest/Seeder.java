@@ -0,0 +1,226 @@
+package com.openclassrooms.starterjwt.loadtest;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fills the yoga-app schema with a synthetic dataset over plain JDBC batches.
+ *
+ * <pre>
+ * java -cp target/loadtest.jar com.openclassrooms.starterjwt.loadtest.Seeder \
+ *   --url=jdbc:mysql://localhost:3306/test?rewriteBatchedStatements=true --username=user --password=123456 \
+ *   --teachers=500 --users=100000 --sessions=50000 --participations=500000
+ * </pre>
+ *
+ * The Flyway migrations of the backend are applied first (a database created from
+ * ressources/sql/script.sql is baselined, as the application does), so an empty H2
+ * database in MySQL mode works too. Seeded users are {@code <prefix><n>@yoga.test}
+ * with the password {@code test!1234}. Run it while the backend is stopped: session
+ * ids are assigned here and the id generator is moved past them at the end.
+ */
+public class Seeder {
+    // BCrypt (strength 10) of "test!1234", the hash of the default admin account
+    static final String PASSWORD_HASH = "$2a$10$.Hsa/ZjUVaHqi0tp9xieMeewrnZxrZ5pQRzddUXE/WjDu2ZThe6Iq";
+    static final String PASSWORD = "test!1234";
+    static final String EMAIL_DOMAIN = "@yoga.test";
+
+    private static final String TEACHER_TAG = "LOADTEST";
+
+    private final Connection connection;
+    private final int batchSize;
+    private final Random random;
+
+    Seeder(Connection connection, int batchSize, long seed) {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] argv) throws SQLException {
+        Args args = new Args(argv);
+        String url = args.get("url", "jdbc:mysql://localhost:3306/test?allowPublicKeyRetrieval=true&rewriteBatchedStatements=true");
+        String username = args.get("username", "user");
+        String password = args.get("password", "123456");
+
+        if (Boolean.parseBoolean(args.get("migrate", "true"))) {
+            Flyway.configure()
+                    .dataSource(url, username, password)
+                    .locations(args.get("migrations", "filesystem:../back/src/main/resources/db/migration"))
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            connection.setAutoCommit(false);
+            Seeder seeder = new Seeder(connection, args.getInt("batch-size", 1000), args.getLong("seed", 42));
+
+            List<Long> teacherIds = seeder.seedTeachers(args.getInt("teachers", 500));
+            List<Long> userIds = seeder.seedUsers(args.getInt("users", 100_000), args.get("email-prefix", "load"));
+            List<Long> sessionIds = seeder.seedSessions(args.getInt("sessions", 50_000), teacherIds);
+            seeder.seedParticipations(args.getLong("participations", 500_000), sessionIds, userIds);
+        }
+    }
+
+    List<Long> seedTeachers(int count) throws SQLException {
+        long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO TEACHERS (first_name, last_name) VALUES (?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, "Teacher" + i);
+                insert.setString(2, TEACHER_TAG);
+                addBatch(insert, i + 1);
+            }
+            flush(insert);
+        }
+
+        List<Long> ids = ids("SELECT id FROM TEACHERS WHERE last_name = '" + TEACHER_TAG + "'");
+        report("teachers", count, started);
+        return ids;
+    }
+
+    List<Long> seedUsers(int count, String emailPrefix) throws SQLException {
+        long started = System.nanoTime();
+        String pattern = emailPrefix + "%" + EMAIL_DOMAIN;
+
+        // Continue the numbering so the tool can be run again on the same database
+        int offset = (int) count("SELECT COUNT(*) FROM USERS WHERE email LIKE '" + pattern + "'");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO USERS (first_name, last_name, admin, email, password) VALUES (?, ?, false, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                int n = offset + i;
+                insert.setString(1, "First" + n);
+                insert.setString(2, "Last" + n);
+                insert.setString(3, emailPrefix + n + EMAIL_DOMAIN);
+                insert.setString(4, PASSWORD_HASH);
+                addBatch(insert, i + 1);
+            }
+            flush(insert);
+        }
+
+        List<Long> ids = ids("SELECT id FROM USERS WHERE email LIKE '" + pattern + "'");
+        report("users", count, started);
+        return ids;
+    }
+
+    List<Long> seedSessions(int count, List<Long> teacherIds) throws SQLException {
+        long started = System.nanoTime();
+
+        // Explicit ids: the application hands out session ids from ID_GENERATORS, not AUTO_INCREMENT
+        long firstId = Math.max(count("SELECT COALESCE(MAX(id), 0) + 1 FROM SESSIONS"),
+                count("SELECT COALESCE(MAX(next_val), 1) FROM ID_GENERATORS WHERE name = 'SESSIONS'"));
+        Instant now = Instant.now().truncatedTo(ChronoUnit.HOURS);
+
+        List<Long> ids = new ArrayList<>(count);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO SESSIONS (id, name, description, date, teacher_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                insert.setLong(1, id);
+                insert.setString(2, "Load session " + id);
+                insert.setString(3, "Synthetic session for load testing");
+                // Spread over a year around today so date filters and keyset paging see realistic ranges
+                insert.setTimestamp(4, Timestamp.from(now.plus(random.nextInt(365 * 24) - 180 * 24, ChronoUnit.HOURS)));
+                insert.setLong(5, teacherIds.get(random.nextInt(teacherIds.size())));
+                addBatch(insert, i + 1);
+                ids.add(id);
+            }
+            flush(insert);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE ID_GENERATORS SET next_val = " + (firstId + count) + " WHERE name = 'SESSIONS'");
+        }
+        connection.commit();
+
+        report("sessions", count, started);
+        return ids;
+    }
+
+    void seedParticipations(long count, List<Long> sessionIds, List<Long> userIds) throws SQLException {
+        long started = System.nanoTime();
+        long perSession = count / sessionIds.size();
+        long remainder = count % sessionIds.size();
+        if (perSession >= userIds.size()) {
+            throw new IllegalArgumentException("Cannot give every session more participants than there are users");
+        }
+
+        long inserted = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO PARTICIPATE (session_id, user_id) VALUES (?, ?)")) {
+            Set<Long> picked = new HashSet<>();
+            for (int s = 0; s < sessionIds.size(); s++) {
+                long participants = perSession + (s < remainder ? 1 : 0);
+                picked.clear();
+                while (picked.size() < participants) {
+                    Long userId = userIds.get(random.nextInt(userIds.size()));
+                    if (picked.add(userId)) {
+                        insert.setLong(1, sessionIds.get(s));
+                        insert.setLong(2, userId);
+                        addBatch(insert, ++inserted);
+                    }
+                }
+            }
+            flush(insert);
+        }
+
+        // Keep the seat counter in line with the rows written outside the application
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE SESSIONS SET seats_taken ="
+                    + " (SELECT COUNT(*) FROM PARTICIPATE p WHERE p.session_id = SESSIONS.id)"
+                    + " WHERE id BETWEEN " + sessionIds.get(0) + " AND " + sessionIds.get(sessionIds.size() - 1));
+            connection.commit();
+        }
+
+        report("participations", inserted, started);
+    }
+
+    private void addBatch(PreparedStatement statement, long rows) throws SQLException {
+        statement.addBatch();
+        if (rows % batchSize == 0) {
+            flush(statement);
+        }
+    }
+
+    private void flush(PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private List<Long> ids(String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%-15s %,10d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / Math.max(seconds, 1e-9));
+    }
+}
@@ -1,3 +1,6 @@
+-- Initial schema. The back end applies later changes itself through the Flyway
+-- migrations in back/src/main/resources/db/migration, baselining on top of this script.
+
 CREATE TABLE `TEACHERS` (
   `id` INT PRIMARY KEY AUTO_INCREMENT,
   `last_name` VARCHAR(40),